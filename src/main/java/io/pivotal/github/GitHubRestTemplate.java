@@ -17,6 +17,7 @@ package io.pivotal.github;
 
 import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -72,6 +73,9 @@ public class GitHubRestTemplate extends RestTemplate {
 			if (rateLimitedMethods.contains(method.name())) {
 				rateLimitHelper.obtainPermitToCall();
 			}
+			else {
+				rateLimitHelper.awaitPrimaryLimit();
+			}
 			return super.doExecute(url, method, decoratedRequestCallback, responseExtractor);
 		}
 		catch (HttpClientErrorException ex) {
@@ -81,34 +85,28 @@ public class GitHubRestTemplate extends RestTemplate {
 				logger.error("No headers for " + requestInfo);
 				throw ex;
 			}
-			long timeToSleep;
 			String retryAfter = headers.getFirst("Retry-After");
 			if (retryAfter != null) {
 				logger.debug("Received Retry-After: " + retryAfter + " for " + requestInfo);
-				timeToSleep = 1000 * Integer.parseInt(retryAfter);
+				rateLimitHelper.pause(Duration.ofSeconds(Integer.parseInt(retryAfter)));
 			}
 			else if ("0".equals(headers.getFirst("X-RateLimit-Remaining"))) {
 				String reset = headers.getFirst("X-RateLimit-Reset");
-				if (reset != null) {
-					logger.debug("Received X-RateLimit-Reset: " + reset + " for " + requestInfo);
-					timeToSleep = (1000 * Long.parseLong(reset)) - System.currentTimeMillis();
-				}
-				else {
+				if (reset == null) {
 					logger.error("X-RateLimit-Remaining:0 but no X-RateLimit-Reset: " + requestInfo);
 					throw ex;
 				}
+				logger.debug("Received X-RateLimit-Reset: " + reset + " for " + requestInfo);
+				rateLimitHelper.updateFromHeaders(headers);
+			}
+			else if (ex.getResponseBodyAsString().contains("secondary rate limit")) {
+				// GitHub recommends waiting at least a minute when no Retry-After is given
+				logger.debug("Secondary rate limit exceeded for " + requestInfo);
+				rateLimitHelper.pause(Duration.ofMinutes(1));
 			}
 			else {
 				throw ex;
 			}
-			try {
-				if (timeToSleep > 0) {
-					Thread.sleep(timeToSleep);
-				}
-			}
-			catch (InterruptedException interruptedEx) {
-				// Ignore
-			}
 		}
 		// Recurse and retry...
 		return doExecuteExtended(url, method, requestCallback, responseExtractor);
@@ -118,6 +116,7 @@ public class GitHubRestTemplate extends RestTemplate {
 	protected void handleResponse(URI url, HttpMethod method, ClientHttpResponse response) throws IOException {
 		logger.debug("{} {X-RateLimit-Remaining:{}}",
 				response.getStatusCode(), response.getHeaders().getFirst("X-RateLimit-Remaining"));
+		rateLimitHelper.updateFromHeaders(response.getHeaders());
 		super.handleResponse(url, method, response);
 	}
 }
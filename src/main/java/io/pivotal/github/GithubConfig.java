@@ -57,4 +57,35 @@ public class GithubConfig {
 	 * </p>
 	 */
 	boolean deleteCreateRepositorySlug;
+
+	/**
+	 * Max number of issue imports submitted whose result has not been checked
+	 * yet. Imports are submitted in order while earlier results are checked.
+	 * Defaults to 100.
+	 */
+	int importWindow = 100;
+
+	/**
+	 * Sustained rate of content-creating (POST, PATCH, PUT, DELETE) requests per
+	 * second. Defaults to 1, as GitHub recommends.
+	 */
+	double writeRate = 1.0;
+
+	/**
+	 * Number of content-creating requests that may be sent at once after an
+	 * idle period. Defaults to 1.
+	 */
+	int writeBurst = 1;
+
+	/**
+	 * Max number of content-creating requests per minute, to stay under GitHub's
+	 * secondary rate limit, or 0 for no limit. Defaults to 80.
+	 */
+	int writesPerMinute = 80;
+
+	/**
+	 * Max number of content-creating requests per hour, to stay under GitHub's
+	 * secondary rate limit, or 0 for no limit. Defaults to 500.
+	 */
+	int writesPerHour = 500;
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Additive-increase/multiplicative-decrease (AIMD) controller for a limit such
+ * as the number of requests in flight or a page size, within fixed bounds.
+ *
+ * <p>The limit grows by a step after a successful request, and is halved on a
+ * 429 or 5xx response, a timeout, or a response slower than the latency
+ * threshold. Only one change applies per round: requests started before the
+ * last change don't change the limit again, so a burst of failures halves it
+ * once. Other errors leave the limit as is.
+ *
+ * <p>Used through {@link #limit(Supplier)} or {@link #limitMany(Supplier)},
+ * it also gates requests to keep at most the current limit in flight.
+ */
+class AdaptiveLimiter {
+
+	private static final Logger logger = LogManager.getLogger(AdaptiveLimiter.class);
+
+
+	private final String name;
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final int step;
+
+	private final long latencyThreshold;
+
+	private final Queue<MonoSink<Long>> waiting = new ArrayDeque<>();
+
+	private double limit;
+
+	private int inFlight;
+
+	private long lastChange;
+
+
+	AdaptiveLimiter(String name, int minLimit, int maxLimit, int step, Duration latencyThreshold) {
+		this.name = name;
+		this.minLimit = Math.max(1, Math.min(minLimit, maxLimit));
+		this.maxLimit = Math.max(1, maxLimit);
+		this.step = step;
+		this.latencyThreshold = latencyThreshold.toNanos();
+		this.limit = this.maxLimit;
+		this.lastChange = System.nanoTime();
+	}
+
+
+	synchronized int getLimit() {
+		return (int) limit;
+	}
+
+	/**
+	 * Defer the given request until the limit allows it, and update the limit
+	 * from its outcome.
+	 */
+	<T> Mono<T> limit(Supplier<Mono<T>> request) {
+		return Mono.usingWhen(acquire(), startTime -> request.get(),
+				startTime -> release(startTime, null),
+				(startTime, ex) -> release(startTime, ex),
+				this::cancel);
+	}
+
+	/**
+	 * Variant of {@link #limit(Supplier)} for a streaming response, which counts
+	 * as in flight until it completes.
+	 */
+	<T> Flux<T> limitMany(Supplier<Flux<T>> request) {
+		return Flux.usingWhen(acquire(), startTime -> request.get(),
+				startTime -> release(startTime, null),
+				(startTime, ex) -> release(startTime, ex),
+				this::cancel);
+	}
+
+	/**
+	 * Update the limit from the outcome of a request, without gating.
+	 * @param startTime the {@link System#nanoTime()} when the request started
+	 * @param ex the error the request ended with, if any
+	 */
+	void record(long startTime, Throwable ex) {
+		boolean congested = (ex != null ? isCongestion(ex) : System.nanoTime() - startTime > latencyThreshold);
+		if (ex != null && !congested) {
+			return;
+		}
+		int oldLimit;
+		int newLimit;
+		synchronized (this) {
+			if (startTime - lastChange < 0) {
+				return;
+			}
+			oldLimit = (int) limit;
+			limit = (congested ? Math.max(minLimit, limit / 2) : Math.min(maxLimit, limit + step));
+			newLimit = (int) limit;
+			if (newLimit == oldLimit) {
+				return;
+			}
+			lastChange = System.nanoTime();
+		}
+		String reason = (ex != null ? ex.getClass().getSimpleName() +
+				(ex instanceof WebClientResponseException responseEx ? " " + responseEx.getRawStatusCode() : "") :
+				(congested ? "slow response" : "success"));
+		if (congested) {
+			logger.info("Jira {} limit decreased from {} to {} ({})", name, oldLimit, newLimit, reason);
+		}
+		else {
+			logger.debug("Jira {} limit increased from {} to {}", name, oldLimit, newLimit);
+		}
+		drain();
+	}
+
+	private static boolean isCongestion(Throwable ex) {
+		if (ex instanceof TimeoutException) {
+			return true;
+		}
+		if (ex instanceof WebClientResponseException responseEx) {
+			int status = responseEx.getRawStatusCode();
+			return (status == 429 || status >= 500);
+		}
+		return false;
+	}
+
+	private Mono<Long> acquire() {
+		return Mono.create(sink -> {
+			boolean acquired;
+			synchronized (this) {
+				acquired = (inFlight < (int) limit);
+				if (acquired) {
+					inFlight++;
+				}
+				else {
+					waiting.add(sink);
+					sink.onCancel(() -> {
+						boolean granted;
+						synchronized (this) {
+							granted = !waiting.remove(sink);
+							if (granted) {
+								// cancelled after drain() handed it a permit
+								inFlight--;
+							}
+						}
+						if (granted) {
+							drain();
+						}
+					});
+				}
+			}
+			if (acquired) {
+				sink.success(System.nanoTime());
+			}
+		});
+	}
+
+	private Mono<Void> release(long startTime, Throwable ex) {
+		return Mono.fromRunnable(() -> {
+			synchronized (this) {
+				inFlight--;
+			}
+			record(startTime, ex);
+			drain();
+		});
+	}
+
+	private Mono<Void> cancel(long startTime) {
+		return Mono.fromRunnable(() -> {
+			synchronized (this) {
+				inFlight--;
+			}
+			drain();
+		});
+	}
+
+	private void drain() {
+		List<MonoSink<Long>> toStart = new ArrayList<>();
+		synchronized (this) {
+			while (inFlight < (int) limit && !waiting.isEmpty()) {
+				inFlight++;
+				toStart.add(waiting.poll());
+			}
+		}
+		toStart.forEach(sink -> sink.success(System.nanoTime()));
+	}
+
+}
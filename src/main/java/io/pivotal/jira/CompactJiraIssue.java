@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.joda.time.DateTime;
+
+/**
+ * Immutable summary of a {@link JiraIssue} with only what's needed after an
+ * issue has been converted for import: to check the import result, to update
+ * the state reason, to link pull requests, and to list the issue in backport
+ * issue holders. Once converted, only the summary of an issue is kept.
+ *
+ * <p>Dates are kept as epoch millis, version and resolution names are interned,
+ * and flags that would otherwise be computed from nested beans are precomputed.
+ *
+ * @param key the issue key
+ * @param summary the issue summary
+ * @param created creation time in epoch millis, or 0 if not known
+ * @param updated last update time in epoch millis, or 0 if not known
+ * @param isPublic whether the issue has no security level
+ * @param hasRestrictedComments whether some comments have restricted visibility
+ * @param resolution the resolution name, or {@code null} if the issue is open
+ * @param fixVersion the name of the fix version, or {@code null}
+ * @param backportVersions the names of the backport versions
+ * @param remoteLinkUrls the URLs of the remote links
+ */
+public record CompactJiraIssue(String key, String summary, long created, long updated,
+		boolean isPublic, boolean hasRestrictedComments, String resolution,
+		String fixVersion, List<String> backportVersions, List<String> remoteLinkUrls) {
+
+	public CompactJiraIssue {
+		backportVersions = List.copyOf(backportVersions);
+		remoteLinkUrls = List.copyOf(remoteLinkUrls);
+	}
+
+
+	/**
+	 * Return the creation time as a {@link DateTime}, or {@code null} if not known.
+	 */
+	public DateTime getCreatedDateTime() {
+		return (created != 0 ? new DateTime(created) : null);
+	}
+
+	/**
+	 * Create a compact summary from an issue on which
+	 * {@link JiraIssue#initFixAndBackportVersions()} has been invoked.
+	 */
+	public static CompactJiraIssue from(JiraIssue issue) {
+		JiraIssue.Fields fields = issue.getFields();
+		if (fields == null) {
+			return new CompactJiraIssue(issue.getKey(), null, 0, 0, true, false, null, null, List.of(), List.of());
+		}
+		List<String> backportVersions = issue.getBackportVersions().stream()
+				.map(version -> version.getName().intern())
+				.toList();
+		List<String> remoteLinkUrls = (fields.getRemoteLinks() != null ?
+				fields.getRemoteLinks().stream().map(RemoteLink::getUrl).filter(Objects::nonNull).toList() :
+				List.<String>of());
+		return new CompactJiraIssue(issue.getKey(), fields.getSummary(),
+				millis(fields.getCreated()), millis(fields.getUpdated()),
+				fields.isPublic(),
+				fields.getComment() != null && fields.getComment().hasRestrictedComments(),
+				fields.getResolution() != null ? fields.getResolution().getName().intern() : null,
+				issue.getFixVersion() != null ? issue.getFixVersion().getName().intern() : null,
+				backportVersions, remoteLinkUrls);
+	}
+
+	private static long millis(DateTime dateTime) {
+		return (dateTime != null ? dateTime.getMillis() : 0);
+	}
+
+}
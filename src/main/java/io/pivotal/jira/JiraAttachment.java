@@ -17,6 +17,7 @@ package io.pivotal.jira;
 
 import java.math.BigDecimal;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -37,6 +38,7 @@ public class JiraAttachment {
 	private static final BigDecimal MB_DIVISOR = KB_DIVISOR.multiply(KB_DIVISOR);
 
 
+	@JsonIgnore
 	public String getSizeToDisplay() {
 		if (size > MB_DIVISOR.intValue()) {
 			return new BigDecimal(size).divide(MB_DIVISOR, 2, BigDecimal.ROUND_UP) + " MB";
@@ -0,0 +1,594 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * Reads the issues of one project from a Jira backup, i.e. the
+ * {@code entities.xml} file of a backup export, or the backup zip file that
+ * contains it, as an alternative to loading them through the REST API.
+ *
+ * <p>The file is read with a StAX parser, one entity at a time, in three
+ * passes: first projects, versions, users and other small lookup entities,
+ * then the issues, and then comments, links, attachments, labels and custom
+ * field values of those issues. Only the entities of the project are kept.
+ * If issues link to issues of other projects, one more pass over the issues
+ * reads the key and summary of those link targets only.
+ *
+ * <p>Comments are sorted by creation time, as returned by the REST API.
+ *
+ * <p>Commits are not part of a backup, so issues have an empty list of commit URLs.
+ */
+public class JiraBackupReader {
+
+	private static final Logger logger = LogManager.getLogger(JiraBackupReader.class);
+
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss.S");
+
+	private static final String SUBTASK_LINK_STYLE = "jira_subtask";
+
+	private static final String REFERENCE_URL_FIELD_ID = "10120";
+
+	private static final String PULL_REQUEST_URL_FIELD_ID = "10684";
+
+	private static final Set<String> LOOKUP_ENTITIES = Set.of("Project", "Version", "Component", "IssueType",
+			"Status", "Priority", "Resolution", "SchemeIssueSecurityLevels", "User", "ApplicationUser",
+			"IssueLinkType", "ProjectRole");
+
+	private static final Set<String> RELATED_ENTITIES = Set.of("Action", "NodeAssociation", "Label",
+			"FileAttachment", "RemoteIssueLink", "IssueLink", "CustomFieldValue");
+
+
+	private final File file;
+
+	private final String baseUrl;
+
+	private final XMLInputFactory inputFactory;
+
+
+	/**
+	 * Create a reader for the given backup file.
+	 * @param file the {@code entities.xml} file, or a zip file that contains it
+	 * @param baseUrl the Jira base URL, for links to issues, users and attachments
+	 */
+	public JiraBackupReader(File file, String baseUrl) {
+		this.file = file;
+		this.baseUrl = baseUrl;
+		this.inputFactory = XMLInputFactory.newFactory();
+		this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		this.inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+	}
+
+
+	/**
+	 * Read the project with the given key, and all of its issues.
+	 */
+	public Content read(String projectKey) throws IOException {
+		Lookups lookups = new Lookups();
+		forEachEntity(LOOKUP_ENTITIES, lookups::add);
+		String projectId = lookups.projectIds.get(projectKey);
+		if (projectId == null) {
+			throw new IllegalArgumentException("Project " + projectKey + " not found in " + file);
+		}
+
+		Map<String, JiraIssue> issues = new LinkedHashMap<>();
+		forEachEntity(Set.of("Issue"), (name, entity) -> {
+			if (projectId.equals(entity.get("project"))) {
+				issues.put(entity.get("id"), createIssue(getIssueKey(entity, lookups), entity, lookups));
+			}
+		});
+		logger.info("Read {} issues of {} from {}", issues.size(), projectKey, file);
+
+		List<Map<String, String>> issueLinks = new ArrayList<>();
+		forEachEntity(RELATED_ENTITIES, (name, entity) -> addRelated(name, entity, issues, issueLinks, lookups));
+		Map<String, JiraIssue> linkTargets = findLinkTargets(issueLinks, issues, lookups);
+		issueLinks.forEach(link -> addIssueLink(link, issues, linkTargets, lookups));
+
+		List<JiraIssue> result = new ArrayList<>(issues.values());
+		result.sort(Comparator.comparingLong(issue -> Long.parseLong(issue.getId())));
+		for (JiraIssue issue : result) {
+			List<JiraComment> comments = issue.getFields().getComment().getComments();
+			comments.sort(Comparator.comparing(JiraComment::getCreated, Comparator.nullsLast(Comparator.naturalOrder())));
+			issue.getFields().getComment().setTotal(comments.size());
+		}
+
+		Content content = new Content();
+		content.setProject(lookups.createProject(projectId));
+		content.setIssues(result);
+		return content;
+	}
+
+	private String getIssueKey(Map<String, String> entity, Lookups lookups) {
+		String key = entity.get("key");
+		if (key != null) {
+			return key;
+		}
+		// Since Jira 6.1, the key is derived from the project key and the issue number
+		return lookups.projectKeys.get(entity.get("project")) + "-" + entity.get("number");
+	}
+
+	private JiraIssue linkTarget(String id, String key, String summary) {
+		JiraIssue.Fields fields = new JiraIssue.Fields();
+		fields.setSummary(summary);
+		JiraIssue issue = new JiraIssue();
+		issue.setId(id);
+		issue.setKey(key);
+		issue.setSelf(baseUrl + "/rest/api/2/issue/" + id);
+		issue.setFields(fields);
+		return issue;
+	}
+
+	private JiraIssue createIssue(String key, Map<String, String> entity, Lookups lookups) {
+		JiraIssue issue = linkTarget(entity.get("id"), key, entity.get("summary"));
+		JiraIssue.Fields fields = issue.getFields();
+		fields.setDescription(entity.get("description"));
+		fields.setCreated(parseDate(entity.get("created")));
+		fields.setUpdated(parseDate(entity.get("updated")));
+		fields.setReporter(lookups.getUser(entity.get("reporter")));
+		fields.setAssignee(lookups.getUser(entity.get("assignee")));
+		fields.setIssuetype(lookups.issueTypes.get(entity.get("type")));
+		fields.setStatus(lookups.statuses.get(entity.get("status")));
+		fields.setPriority(lookups.priorities.get(entity.get("priority")));
+		fields.setResolution(lookups.resolutions.get(entity.get("resolution")));
+		fields.setSecurity(lookups.securityLevels.get(entity.get("security")));
+		fields.setVotes(new JiraVotes(parseInt(entity.get("votes"))));
+		JiraWatcher watcher = new JiraWatcher();
+		watcher.setWatchCount(parseInt(entity.get("watches")));
+		fields.setWatches(watcher);
+		fields.setComponents(new ArrayList<>());
+		fields.setVersions(new ArrayList<>());
+		fields.setFixVersions(new ArrayList<>());
+		fields.setLabels(new ArrayList<>());
+		fields.setSubtasks(new ArrayList<>());
+		fields.setIssuelinks(new ArrayList<>());
+		fields.setAttachment(new ArrayList<>());
+		fields.setRemoteLinks(new ArrayList<>());
+		JiraCommentPage comments = new JiraCommentPage();
+		comments.setComments(new ArrayList<>());
+		fields.setComment(comments);
+		issue.setCommitUrls(Collections.emptyList());
+		return issue;
+	}
+
+	private void addRelated(String name, Map<String, String> entity,
+			Map<String, JiraIssue> issues, List<Map<String, String>> issueLinks, Lookups lookups) {
+
+		switch (name) {
+			case "Action" -> {
+				JiraIssue issue = issues.get(entity.get("issue"));
+				if (issue != null && "comment".equals(entity.get("type"))) {
+					issue.getFields().getComment().getComments().add(createComment(entity, lookups));
+				}
+			}
+			case "NodeAssociation" -> {
+				JiraIssue issue = issues.get(entity.get("sourceNodeId"));
+				if (issue == null || !"Issue".equals(entity.get("sourceNodeEntity"))) {
+					return;
+				}
+				String sinkId = entity.get("sinkNodeId");
+				JiraIssue.Fields fields = issue.getFields();
+				switch (String.valueOf(entity.get("associationType"))) {
+					case "IssueComponent" -> addIfNotNull(fields.getComponents(), lookups.components.get(sinkId));
+					case "IssueVersion" -> addIfNotNull(fields.getVersions(), lookups.versions.get(sinkId));
+					case "IssueFixVersion" -> {
+						JiraVersion version = lookups.versions.get(sinkId);
+						if (version != null) {
+							fields.getFixVersions().add(new JiraFixVersion(version.getName()));
+						}
+					}
+					default -> {}
+				}
+			}
+			case "Label" -> {
+				JiraIssue issue = issues.get(entity.get("issue"));
+				if (issue != null && entity.get("label") != null) {
+					issue.getFields().getLabels().add(entity.get("label"));
+				}
+			}
+			case "FileAttachment" -> {
+				JiraIssue issue = issues.get(entity.get("issue"));
+				if (issue != null) {
+					String filename = entity.get("filename");
+					String content = baseUrl + "/secure/attachment/" + entity.get("id") + "/" + filename;
+					issue.getFields().getAttachment().add(
+							new JiraAttachment(filename, content, parseInt(entity.get("filesize"))));
+				}
+			}
+			case "RemoteIssueLink" -> {
+				JiraIssue issue = issues.get(entity.get("issueid"));
+				if (issue != null) {
+					RemoteLink link = new RemoteLink();
+					link.setUrl(entity.get("url"));
+					link.setTitle(entity.get("title"));
+					issue.getFields().getRemoteLinks().add(link);
+				}
+			}
+			case "IssueLink" -> {
+				// Added once the issues of other projects they point to are known
+				if (issues.containsKey(entity.get("source")) || issues.containsKey(entity.get("destination"))) {
+					issueLinks.add(entity);
+				}
+			}
+			case "CustomFieldValue" -> {
+				JiraIssue issue = issues.get(entity.get("issue"));
+				if (issue == null) {
+					return;
+				}
+				String value = (entity.get("stringvalue") != null ? entity.get("stringvalue") : entity.get("textvalue"));
+				if (REFERENCE_URL_FIELD_ID.equals(entity.get("customfield"))) {
+					issue.getFields().setReferenceUrl(value);
+				}
+				else if (PULL_REQUEST_URL_FIELD_ID.equals(entity.get("customfield"))) {
+					issue.getFields().setPullRequestUrl(value);
+				}
+			}
+			default -> {}
+		}
+	}
+
+	private JiraComment createComment(Map<String, String> entity, Lookups lookups) {
+		JiraComment comment = new JiraComment();
+		comment.setAuthor(lookups.getUser(entity.get("author")));
+		comment.setCreated(parseDate(entity.get("created")));
+		comment.setBody(entity.get("body"));
+		String visibility = (entity.get("level") != null ? entity.get("level") :
+				lookups.projectRoles.get(entity.get("rolelevel")));
+		if (visibility != null) {
+			JiraCommentVisibility commentVisibility = new JiraCommentVisibility();
+			commentVisibility.setValue(visibility);
+			comment.setVisibility(commentVisibility);
+		}
+		return comment;
+	}
+
+	/**
+	 * Create the issues to refer to from links: from the issues of the project,
+	 * and with a pass over the backup for linked issues of other projects.
+	 */
+	private Map<String, JiraIssue> findLinkTargets(List<Map<String, String>> issueLinks,
+			Map<String, JiraIssue> issues, Lookups lookups) throws IOException {
+
+		Map<String, JiraIssue> linkTargets = new HashMap<>();
+		Set<String> otherIds = new HashSet<>();
+		for (Map<String, String> link : issueLinks) {
+			for (String id : List.of(link.get("source"), link.get("destination"))) {
+				JiraIssue issue = issues.get(id);
+				if (issue != null) {
+					linkTargets.computeIfAbsent(id, key -> linkTarget(id, issue.getKey(), issue.getFields().getSummary()));
+				}
+				else {
+					otherIds.add(id);
+				}
+			}
+		}
+		if (!otherIds.isEmpty()) {
+			forEachEntity(Set.of("Issue"), (name, entity) -> {
+				String id = entity.get("id");
+				if (otherIds.contains(id)) {
+					linkTargets.put(id, linkTarget(id, getIssueKey(entity, lookups), entity.get("summary")));
+				}
+			});
+		}
+		return linkTargets;
+	}
+
+	private void addIssueLink(Map<String, String> entity,
+			Map<String, JiraIssue> issues, Map<String, JiraIssue> linkTargets, Lookups lookups) {
+
+		Map<String, String> linkType = lookups.linkTypes.get(entity.get("linktype"));
+		JiraIssue source = linkTargets.get(entity.get("source"));
+		JiraIssue destination = linkTargets.get(entity.get("destination"));
+		if (linkType == null || source == null || destination == null) {
+			return;
+		}
+		JiraIssue sourceIssue = issues.get(entity.get("source"));
+		JiraIssue destinationIssue = issues.get(entity.get("destination"));
+		if (SUBTASK_LINK_STYLE.equals(linkType.get("style"))) {
+			if (sourceIssue != null) {
+				sourceIssue.getFields().getSubtasks().add(destination);
+			}
+			if (destinationIssue != null) {
+				destinationIssue.getFields().setParent(source);
+			}
+			return;
+		}
+		IssueLink.RelatedType type = new IssueLink.RelatedType();
+		type.setName(linkType.get("linkname"));
+		type.setInward(linkType.get("inward"));
+		type.setOutward(linkType.get("outward"));
+		if (sourceIssue != null) {
+			IssueLink link = new IssueLink();
+			link.setType(type);
+			link.setOutwardIssue(destination);
+			sourceIssue.getFields().getIssuelinks().add(link);
+		}
+		if (destinationIssue != null) {
+			IssueLink link = new IssueLink();
+			link.setType(type);
+			link.setInwardIssue(source);
+			destinationIssue.getFields().getIssuelinks().add(link);
+		}
+	}
+
+	/**
+	 * Stream through the backup, and pass each top-level entity with one of the
+	 * given names to the handler, with its attributes and the text of its
+	 * child elements, such as a long description, as values.
+	 */
+	private void forEachEntity(Set<String> names, BiConsumer<String, Map<String, String>> handler) throws IOException {
+		try (InputStream inputStream = openEntities()) {
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream, "UTF-8");
+			try {
+				int depth = 0;
+				String entityName = null;
+				Map<String, String> entity = null;
+				String childName = null;
+				StringBuilder text = null;
+				while (reader.hasNext()) {
+					int event = reader.next();
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						depth++;
+						if (depth == 2 && names.contains(reader.getLocalName())) {
+							entityName = reader.getLocalName();
+							entity = new HashMap<>();
+							for (int i = 0; i < reader.getAttributeCount(); i++) {
+								entity.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+							}
+						}
+						else if (depth == 3 && entity != null) {
+							childName = reader.getLocalName();
+							text = new StringBuilder();
+						}
+					}
+					else if ((event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) && text != null) {
+						text.append(reader.getText());
+					}
+					else if (event == XMLStreamConstants.END_ELEMENT) {
+						if (depth == 3 && text != null) {
+							entity.put(childName, text.toString());
+							text = null;
+						}
+						else if (depth == 2 && entity != null) {
+							handler.accept(entityName, entity);
+							entity = null;
+						}
+						depth--;
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (XMLStreamException ex) {
+			throw new IOException("Failed to read " + file + ": " + ex.getMessage(), ex);
+		}
+	}
+
+	private InputStream openEntities() throws IOException {
+		InputStream inputStream = new FileInputStream(file);
+		if (!file.getName().endsWith(".zip")) {
+			return inputStream;
+		}
+		ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+		ZipEntry entry;
+		while ((entry = zipInputStream.getNextEntry()) != null) {
+			if (entry.getName().equals("entities.xml")) {
+				return zipInputStream;
+			}
+		}
+		zipInputStream.close();
+		throw new IOException("No entities.xml in " + file);
+	}
+
+	private static <T> void addIfNotNull(List<T> list, T value) {
+		if (value != null) {
+			list.add(value);
+		}
+	}
+
+	private static DateTime parseDate(String value) {
+		return (value != null ? DATE_FORMATTER.parseDateTime(value) : null);
+	}
+
+	private static int parseInt(String value) {
+		try {
+			return (value != null ? Integer.parseInt(value) : 0);
+		}
+		catch (NumberFormatException ex) {
+			return 0;
+		}
+	}
+
+
+	/**
+	 * Small entities that issues refer to by id.
+	 */
+	private class Lookups {
+
+		private final Map<String, String> projectIds = new HashMap<>();
+
+		private final Map<String, String> projectKeys = new HashMap<>();
+
+		private final Map<String, JiraVersion> versions = new HashMap<>();
+
+		private final Map<String, String> versionSequences = new HashMap<>();
+
+		private final Map<String, JiraComponent> components = new HashMap<>();
+
+		private final Map<String, String> componentProjects = new HashMap<>();
+
+		private final Map<String, JiraIssueType> issueTypes = new LinkedHashMap<>();
+
+		private final Map<String, JiraStatus> statuses = new HashMap<>();
+
+		private final Map<String, JiraPriority> priorities = new HashMap<>();
+
+		private final Map<String, JiraResolution> resolutions = new HashMap<>();
+
+		private final Map<String, JiraSecurity> securityLevels = new HashMap<>();
+
+		private final Map<String, String> displayNames = new HashMap<>();
+
+		private final Map<String, String> userNames = new HashMap<>();
+
+		private final Map<String, JiraUser> users = new HashMap<>();
+
+		private final Map<String, Map<String, String>> linkTypes = new HashMap<>();
+
+		private final Map<String, String> projectRoles = new HashMap<>();
+
+		void add(String name, Map<String, String> entity) {
+			String id = entity.get("id");
+			switch (name) {
+				case "Project" -> {
+					projectIds.put(entity.get("key"), id);
+					projectKeys.put(id, entity.get("key"));
+				}
+				case "Version" -> {
+					JiraVersion version = new JiraVersion();
+					version.setId(id);
+					version.setName(entity.get("name"));
+					version.setProjectId(entity.get("project"));
+					version.setReleased("true".equals(entity.get("released")));
+					version.setArchived("true".equals(entity.get("archived")));
+					version.setReleaseDate(parseDate(entity.get("releasedate")));
+					version.setSelf(baseUrl + "/rest/api/2/version/" + id);
+					versions.put(id, version);
+					versionSequences.put(id, entity.get("sequence"));
+				}
+				case "Component" -> {
+					JiraComponent component = new JiraComponent();
+					component.setId(id);
+					component.setName(entity.get("name"));
+					components.put(id, component);
+					componentProjects.put(id, entity.get("project"));
+				}
+				case "IssueType" -> {
+					JiraIssueType type = new JiraIssueType();
+					type.setId(Long.valueOf(id));
+					type.setName(entity.get("name"));
+					issueTypes.put(id, type);
+				}
+				case "Status" -> {
+					JiraStatus status = new JiraStatus();
+					status.setName(entity.get("name"));
+					statuses.put(id, status);
+				}
+				case "Priority" -> {
+					JiraPriority priority = new JiraPriority();
+					priority.setName(entity.get("name"));
+					priorities.put(id, priority);
+				}
+				case "Resolution" -> {
+					JiraResolution resolution = new JiraResolution();
+					resolution.setName(entity.get("name"));
+					resolutions.put(id, resolution);
+				}
+				case "SchemeIssueSecurityLevels" -> {
+					JiraSecurity security = new JiraSecurity();
+					security.setName(entity.get("name"));
+					securityLevels.put(id, security);
+				}
+				case "User" -> displayNames.put(entity.get("lowerUserName"), entity.get("displayName"));
+				case "ApplicationUser" -> userNames.put(entity.get("userKey"), entity.get("lowerUserName"));
+				case "IssueLinkType" -> linkTypes.put(id, entity);
+				case "ProjectRole" -> projectRoles.put(id, entity.get("name"));
+				default -> {}
+			}
+		}
+
+		/**
+		 * Return the user for a user key, as used in issues and comments.
+		 */
+		JiraUser getUser(String userKey) {
+			if (userKey == null) {
+				return null;
+			}
+			return users.computeIfAbsent(userKey, key -> {
+				String userName = userNames.getOrDefault(key, key);
+				JiraUser user = new JiraUser();
+				user.setKey(key);
+				user.setDisplayName(displayNames.getOrDefault(userName.toLowerCase(), userName));
+				user.setSelf(baseUrl + "/rest/api/2/user?username=" + userName);
+				return user;
+			});
+		}
+
+		JiraProject createProject(String projectId) {
+			JiraProject project = new JiraProject();
+			project.setVersions(versions.values().stream()
+					.filter(version -> projectId.equals(version.getProjectId()))
+					.sorted(Comparator.comparingLong(version -> parseLong(versionSequences.get(version.getId()))))
+					.toList());
+			project.setComponents(components.entrySet().stream()
+					.filter(entry -> projectId.equals(componentProjects.get(entry.getKey())))
+					.map(Map.Entry::getValue)
+					.toList());
+			project.setIssueTypes(new ArrayList<>(issueTypes.values()));
+			return project;
+		}
+
+		private static long parseLong(String value) {
+			try {
+				return (value != null ? Long.parseLong(value) : 0);
+			}
+			catch (NumberFormatException ex) {
+				return 0;
+			}
+		}
+	}
+
+
+	@Data
+	public static class Content {
+
+		JiraProject project;
+
+		List<JiraIssue> issues;
+
+	}
+
+}
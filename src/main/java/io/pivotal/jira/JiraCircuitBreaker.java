@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.time.Duration;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import reactor.core.publisher.Mono;
+
+/**
+ * Pauses all requests to Jira for a while after a number of transient
+ * failures in a row, as determined by {@link JiraRetry#isTransient}, to let a
+ * degraded server recover instead of retrying into it. The pause is at least
+ * as long as any {@code Retry-After} of the last failure. Requests started
+ * during a pause wait for it to end, and if the first of them fail again,
+ * requests are paused again.
+ */
+class JiraCircuitBreaker {
+
+	private static final Logger logger = LogManager.getLogger(JiraCircuitBreaker.class);
+
+
+	private final int failureThreshold;
+
+	private final Duration pause;
+
+	private int consecutiveFailures;
+
+	private long openUntil;
+
+	private boolean open;
+
+
+	JiraCircuitBreaker(int failureThreshold, Duration pause) {
+		this.failureThreshold = failureThreshold;
+		this.pause = pause;
+	}
+
+
+	/**
+	 * Return a {@link Mono} that completes when requests are allowed.
+	 */
+	Mono<Void> awaitClosed() {
+		return Mono.defer(() -> {
+			long remaining = getRemainingPause();
+			return (remaining > 0 ? Mono.delay(Duration.ofNanos(remaining)).then() : Mono.empty());
+		});
+	}
+
+	synchronized void recordSuccess() {
+		consecutiveFailures = 0;
+		if (open) {
+			open = false;
+			logger.info("Jira requests succeed again");
+		}
+	}
+
+	synchronized void recordFailure(Throwable ex) {
+		if (!JiraRetry.isTransient(ex)) {
+			return;
+		}
+		consecutiveFailures++;
+		// While paused, failures of requests started earlier don't extend the pause,
+		// but after it, the first failure pauses again
+		if (open ? getRemainingPause() > 0 : consecutiveFailures < failureThreshold) {
+			return;
+		}
+		Duration retryAfter = JiraRetry.retryAfter(ex);
+		Duration delay = (retryAfter != null && retryAfter.compareTo(pause) > 0 ? retryAfter : pause);
+		logger.warn("Pausing Jira requests for {} s after {} failures in a row, last: {}",
+				delay.toSeconds(), consecutiveFailures, ex.toString());
+		openUntil = System.nanoTime() + delay.toNanos();
+		consecutiveFailures = 0;
+		open = true;
+	}
+
+	private synchronized long getRemainingPause() {
+		return (open ? openUntil - System.nanoTime() : 0);
+	}
+
+}
@@ -15,25 +15,49 @@
  */
 package io.pivotal.jira;
 
+import java.io.File;
+import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.pivotal.util.ProgressTracker;
 import lombok.Data;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.reactivestreams.Publisher;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuples;
+import reactor.util.retry.Retry;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
@@ -45,17 +69,38 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 @Component
 public class JiraClient {
 
-	/**
-	 * The max number of issues expected in the Jira project. It should be some reasonably high number,
-	 * so all issues will be fetched, in multiples of 1000. This is necessary because we don't
-	 * politely fetch one page at a time, but rather get 5 at a time concurrently. This number gives
-	 * a hint where to stop so we avoid running into a bunch of 400 errors before realizing to stop.
-	 */
-	public static final int MAX_ISSUE_COUNT_HINT = 20000;
-
 	private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE =
 			new ParameterizedTypeReference<Map<String, Object>>() {};
 
+	private static final TypeReference<List<RemoteLink>> REMOTE_LINKS_TYPE = new TypeReference<List<RemoteLink>>() {};
+
+	/** Max number of decoded issues to buffer per search page in flight. */
+	private static final int ISSUE_PREFETCH = 100;
+
+	/** Max number of received response chunks to buffer per search page in flight. */
+	private static final int BUFFER_PREFETCH = 4;
+
+	/** Responses to single-issue requests slower than this reduce concurrency. */
+	private static final Duration SLOW_REQUEST_THRESHOLD = Duration.ofSeconds(5);
+
+	/** Retries of a request after transient failures, with backoff from 1 s up to 1 min. */
+	private static final int MAX_RETRIES = 5;
+
+	/** Transient failures in a row after which all requests are paused, for at least 1 min. */
+	private static final int CIRCUIT_BREAKER_THRESHOLD = 10;
+
+	/** Number of comments to request per page for issues with more comments than the search returns. */
+	private static final int COMMENT_PAGE_SIZE = 100;
+
+	/** Number of keys per {@code key in (...)} query. */
+	private static final int KEY_BATCH_SIZE = 200;
+
+	/** Number of issues per gzip member in an archive. */
+	private static final int ARCHIVE_BATCH_SIZE = 1000;
+
+	/** Margin applied to the cache watermark to allow for time zone and clock differences. */
+	private static final int CACHE_WATERMARK_MARGIN_HOURS = 24;
+
 	private static final Logger logger = LogManager.getLogger(JiraClient.class);
 
 
@@ -63,135 +108,736 @@ public class JiraClient {
 
 	WebClient webClient;
 
+	/** Shares equal users, versions, etc. across all issues read by this client. */
+	private final JiraInterningModule interningModule = new JiraInterningModule();
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(interningModule).build();
+
+	/** Decoding of large responses happens here rather than on the Netty event loop. */
+	private final Scheduler decodeScheduler;
+
+	/** Present if {@link JiraConfig#getCacheDir()} is set. */
+	private final JiraIssueCache issueCache;
+
+	/** Present if {@link JiraConfig#getReplayArchive()} is set, to read issues from instead of Jira. */
+	private final JiraIssueArchive replayArchive;
+
+	private final Retry retry = JiraRetry.backoff(MAX_RETRIES, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+	private final JiraCircuitBreaker circuitBreaker = new JiraCircuitBreaker(CIRCUIT_BREAKER_THRESHOLD, Duration.ofMinutes(1));
+
+	private final AdaptiveLimiter searchLimiter;
+
+	private final AdaptiveLimiter pageSizeLimiter;
+
+	private final AdaptiveLimiter enrichmentLimiter;
+
+	private final AdaptiveLimiter writeLimiter;
+
+	/** All issues of the project, once loaded, if {@link JiraConfig#isLocalQueries()} is set. */
+	private volatile JiraIssueStore issueStore;
+
+	/** Present if {@link JiraConfig#getTimeZone()} is set, to evaluate dates in queries locally. */
+	private final DateTimeZone timeZone;
+
+	/** Built on first use if {@link JiraConfig#getCommitRepository()} is set. */
+	private LocalCommitIndex commitIndex;
+
 
 	@Autowired
 	public JiraClient(JiraConfig jiraConfig) {
 		this.jiraConfig = jiraConfig;
 		WebClient.Builder builder = WebClient.builder()
 				.baseUrl(jiraConfig.getBaseUrl() + "/rest/api/2")
-				.codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(-1));
+				.codecs(configurer -> {
+					configurer.defaultCodecs().maxInMemorySize(-1);
+					configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+				});
 		if (jiraConfig.getUser() != null) {
 			builder = builder.defaultHeaders(headers ->
 					headers.setBasicAuth(jiraConfig.getUser(), jiraConfig.getPassword()));
 		}
 		this.webClient = builder.build();
+		this.decodeScheduler = Schedulers.newParallel("jira-decode", jiraConfig.getDecodeParallelism(), true);
+		this.issueCache = (jiraConfig.getCacheDir() != null ?
+				new JiraIssueCache(new File(jiraConfig.getCacheDir(), Objects.toString(jiraConfig.getProjectId(), "default")),
+						objectMapper) : null);
+		this.replayArchive = (jiraConfig.getReplayArchive() != null ?
+				new JiraIssueArchive(new File(jiraConfig.getReplayArchive()), objectMapper) : null);
+		this.timeZone = (jiraConfig.getTimeZone() != null ? DateTimeZone.forID(jiraConfig.getTimeZone()) : null);
+		Duration slowPage = jiraConfig.getSlowSearchPageThreshold();
+		this.searchLimiter = new AdaptiveLimiter("search concurrency", 1, jiraConfig.getSearchConcurrency(), 1, slowPage);
+		this.pageSizeLimiter = new AdaptiveLimiter("page size",
+				jiraConfig.getMinPageSize(), jiraConfig.getMaxPageSize(), jiraConfig.getMinPageSize(), slowPage);
+		this.enrichmentLimiter = new AdaptiveLimiter("enrichment concurrency",
+				1, jiraConfig.getEnrichmentConcurrency(), 1, SLOW_REQUEST_THRESHOLD);
+		this.writeLimiter = new AdaptiveLimiter("write concurrency",
+				1, jiraConfig.getWriteConcurrency(), 1, SLOW_REQUEST_THRESHOLD);
 	}
 
 
 	public JiraProject findProject(String id) {
+		if (replayArchive != null) {
+			return readReplayMetadata().getProject();
+		}
 		return webClient.get().uri("/project/{id}", id).retrieve().bodyToMono(JiraProject.class).block();
 	}
 
+	/**
+	 * Find issues for the given query, without remote links and commits.
+	 * @see #enrichIssues(List)
+	 */
 	public List<JiraIssue> findIssues(String jql) {
-		return getAndCollectIssues(jql).block();
+		return findIssues(jql, JiraFieldProfile.FULL);
 	}
 
+	/**
+	 * Variant of {@link #findIssues(String)} that loads only the fields of the
+	 * given profile.
+	 */
+	public List<JiraIssue> findIssues(String jql, JiraFieldProfile profile) {
+		if (replayArchive != null) {
+			return replayIssues(jql);
+		}
+		JiraIssueStore store = issueStore;
+		if (store != null && store.covers(jql)) {
+			List<JiraIssue> issues = store.find(jql);
+			logger.info("Found {} issues for \"{}\" among the {} loaded issues of {}",
+					issues.size(), jql, store.size(), store.getProjectKey());
+			return issues;
+		}
+		SearchProgress progress = new SearchProgress();
+		return getAndCollectIssues(jql, profile, progress)
+				.doOnNext(issues -> updateCache(cacheKey(jql, profile), issues, progress))
+				.doOnNext(issues -> updateStore(jql, profile, issues))
+				.block();
+	}
+
+	/**
+	 * Find issues for the given query, and load remote links and commits for
+	 * the ones selected by the given function, typically the issues that
+	 * remain to be imported. Votes are part of the search results.
+	 */
 	public List<JiraIssue> findIssuesVotesAndCommits(
 			String jql, Function<List<JiraIssue>, List<JiraIssue>> filterIssuesToImport) {
 
-		return getAndCollectIssues(jql)
-				.flatMap(issues -> {
-					// Load votes and commits only for issues not already imported
-					return populateVotesAndCommits(filterIssuesToImport.apply(issues))
-							.then(Mono.just(issues));
-				})
+		if (replayArchive != null) {
+			return replayIssues(jql);
+		}
+		SearchProgress progress = new SearchProgress();
+		return getAndCollectIssues(jql, JiraFieldProfile.FULL, progress)
+				.flatMap(issues -> enrich(filterIssuesToImport.apply(issues)).then(Mono.just(issues)))
+				.doOnNext(issues -> updateCache(jql, issues, progress))
+				.doOnNext(issues -> updateStore(jql, JiraFieldProfile.FULL, issues))
 				.block();
 	}
 
-	private Mono<List<JiraIssue>> getAndCollectIssues(String jql) {
-		return getIssues(jql).flatMap(
-                        this::findRemoteLinks
-				).collectList()
-				.doOnNext(issues -> {
-					logger.info("Found {} issues", issues.size());
+	/**
+	 * Load remote links and commits for the given issues, e.g. issues returned
+	 * from {@link #findIssues(String)}, unless already loaded.
+	 */
+	public void enrichIssues(List<JiraIssue> issues) {
+		if (replayArchive == null) {
+			enrich(issues).block();
+		}
+	}
 
-					Map<String, JiraIssue> backportSubtasks = issues.stream()
-							.filter(issue -> issue.getFields().getIssuetype().getName().equalsIgnoreCase("Backport"))
-							.filter(issue -> issue.getFields().getFixVersions() != null)
-							.collect(Collectors.toMap(JiraIssue::getKey, o -> o));
+	/**
+	 * Drop the issues kept for local queries, so that they can be garbage
+	 * collected once the caller is done with them. Later queries go to Jira.
+	 */
+	public void releaseIssueStore() {
+		issueStore = null;
+	}
 
-					issues.forEach(issue -> issue.initFixAndBackportVersions(backportSubtasks));
-				});
+	/**
+	 * Find issues matching the given query that were updated at or after the
+	 * given time, along with their votes and commits. The cache is not used.
+	 * @param backportSubtasks "Backport" sub-tasks to aggregate fix versions
+	 * from, see {@link JiraIssueGraph#getBackportSubtasks()}, typically from all
+	 * issues of the query, since sub-tasks may not have been updated with their parent
+	 * @throws IllegalStateException if any search page could not be fetched
+	 */
+	public List<JiraIssue> findIssuesUpdatedSince(String jql, DateTime since,
+			Map<String, JiraIssue> backportSubtasks) {
+
+		if (replayArchive != null) {
+			return replayIssues(jql).stream()
+					.filter(issue -> !issue.getFields().getUpdated().isBefore(since))
+					.collect(Collectors.toList());
+		}
+		SearchProgress progress = new SearchProgress();
+		return getIssues(Jql.and(jql, Jql.updatedSince(since)), JiraFieldProfile.FULL, progress)
+				.collectList()
+				.doOnNext(issues -> Assert.state(progress.isComplete(), () -> "Fetched only " +
+						progress.getFetchedPages() + " of " + progress.getPlannedPages() + " pages"))
+				.doOnNext(issues -> issues.forEach(issue -> issue.initFixAndBackportVersions(backportSubtasks)))
+				.flatMap(issues -> enrich(issues).then(Mono.just(issues)))
+				.block();
+	}
+
+	/**
+	 * Variant of {@link #findIssuesVotesAndCommits} for a restart where most issues
+	 * have been imported. All issues are loaded with {@link JiraFieldProfile#METADATA}
+	 * first, and only the ones to import are then loaded with all fields, and
+	 * enriched. The returned list has all issues, in the order of the query.
+	 */
+	public List<JiraIssue> findRemainingIssuesVotesAndCommits(
+			String jql, Function<List<JiraIssue>, List<JiraIssue>> filterIssuesToImport) {
+
+		if (replayArchive != null) {
+			return replayIssues(jql);
+		}
+		List<JiraIssue> issues = findIssues(jql, JiraFieldProfile.METADATA);
+		List<String> keys = filterIssuesToImport.apply(issues).stream().map(JiraIssue::getKey).toList();
+		logger.info("Loading all fields for {} of {} issues", keys.size(), issues.size());
+		Map<String, JiraIssue> fullIssues = findIssuesByKeys(keys).stream()
+				.collect(Collectors.toMap(JiraIssue::getKey, issue -> issue));
+		List<JiraIssue> result = issues.stream()
+				.map(issue -> fullIssues.getOrDefault(issue.getKey(), issue))
+				.collect(Collectors.toList());
+		// Again, now that the issues to import are complete
+		initFixAndBackportVersions(result);
+		enrich(List.copyOf(fullIssues.values())).block();
+		return result;
 	}
 
-	private Publisher<JiraIssue> findRemoteLinks(JiraIssue issue) {
-		return webClient.get()
-				.uri("/issue/{issueKey}/remotelink", issue.getKey())
-				.retrieve()
-				.bodyToFlux(RemoteLink.class)
+	/**
+	 * Find issues with all fields by key, {@value #KEY_BATCH_SIZE} keys per query,
+	 * with up to {@link JiraConfig#getSearchConcurrency()} queries at a time.
+	 */
+	public List<JiraIssue> findIssuesByKeys(List<String> keys) {
+		if (replayArchive != null) {
+			Set<String> keySet = Set.copyOf(keys);
+			return replayIssues(jiraConfig.getMigrateJql()).stream()
+					.filter(issue -> keySet.contains(issue.getKey()))
+					.collect(Collectors.toList());
+		}
+		return Flux.fromIterable(keys)
+				.buffer(KEY_BATCH_SIZE)
+				.flatMapSequential(batch -> {
+					SearchProgress progress = new SearchProgress();
+					return getIssues(Jql.keyIn(batch), JiraFieldProfile.FULL, progress)
+							.collectList()
+							.doOnNext(issues -> Assert.state(progress.isComplete(), () -> "Fetched only " +
+									progress.getFetchedPages() + " of " + progress.getPlannedPages() + " pages"));
+				}, jiraConfig.getSearchConcurrency())
+				.flatMapIterable(issues -> issues)
 				.collectList()
-				.map(
-						remoteLinks -> {
-							if (!remoteLinks.isEmpty()) {
-								logger.debug("Found {} remote links for issue {}", remoteLinks.size(), issue.getKey());
-								issue.getFields().setRemoteLinks(
-										remoteLinks
-								);
-							}
+				.block();
+	}
 
-							return issue;
-						}
-				);
-	}
-
-	private Flux<JiraIssue> getIssues(String jql) {
-		int pageSize = 1000;
-		logger.info("Loading issues (1000 per page) for jql=\"{}\"", jql);
-		int concurrency = 5; // we could go higher but each brings large amount of data to convert in parallel
-		return Flux.range(0, MAX_ISSUE_COUNT_HINT / 1000)
-				.flatMap(page -> {
-					int startAt = page * pageSize;
-					System.out.print((page + 1) + " ");
-					return webClient.get()
-							.uri("/search?maxResults=1000&startAt={0}&jql={jql}&fields=" + JiraIssue.FIELD_NAMES, startAt, jql)
-							.retrieve()
-							.bodyToMono(JiraSearchResult.class)
-							.onErrorResume(ex -> {
-								logger.error("page " + page + ": " + ex.getMessage(), ex);
-								return Mono.empty();
-							});
-
-				}, concurrency)
-				.sort(Comparator.comparingLong(JiraSearchResult::getStartAt))
-				.concatMapIterable(JiraSearchResult::getIssues)
-				.doOnComplete(() -> System.out.println("complete"));
-	}
-
-	/**
-	 * @param issues the issues to populate
-	 */
-	private Mono<Void> populateVotesAndCommits(List<JiraIssue> issues) {
-		logger.info("Loading votes and commits for {} issues (2 requests per issue/iteration)", issues.size());
-		ProgressTracker tracker = new ProgressTracker(issues.size(), 50, 1000, logger.isDebugEnabled());
-		int concurrency = 8; // 16 concurrent requests (2 per flatMap)s
-		return Flux.fromIterable(issues)
-				.flatMap(issue -> {
-					Mono<Map<String, Object>> votesResult = webClient.get()
-							.uri("/issue/{id}/votes", issue.getId())
-							.retrieve()
-							.bodyToMono(MAP_TYPE)
-							.timeout(Duration.ofSeconds(10))
-							.retry(3);
-					Mono<Map<String, Object>> commitsResult = webClient.get()
-							.uri(builder -> builder
-									.replacePath("jira/rest/dev-status/1.0/issue/detail")
-									.query("issueId={id}&applicationType=github&dataType=repository")
-									.build(issue.getId()))
-							.retrieve()
-							.bodyToMono(MAP_TYPE)
-							.timeout(Duration.ofSeconds(10))
-							.retry(3);
-					return Mono.zip(Mono.just(issue), votesResult, commitsResult);
-				}, concurrency)
-				.doOnNext(tuple -> {
-					tuple.getT1().setVotes((int) tuple.getT2().get("votes"));
-					tuple.getT1().setCommitUrls(extractCommits(tuple.getT3()));
-					tracker.updateForIteration();
+	/**
+	 * Return the number of comments of each of the given issues, requesting only
+	 * the comment totals, with up to {@link JiraConfig#getEnrichmentConcurrency()}
+	 * requests in flight.
+	 */
+	public Map<String, Integer> findCommentCounts(List<String> issueKeys) {
+		if (replayArchive != null) {
+			Map<String, JiraIssue> issues = replayIssues(jiraConfig.getMigrateJql()).stream()
+					.collect(Collectors.toMap(JiraIssue::getKey, issue -> issue));
+			return issueKeys.stream().collect(Collectors.toMap(key -> key, key -> {
+				JiraIssue issue = issues.get(key);
+				return (issue != null && issue.getFields().getComment() != null ?
+						issue.getFields().getComment().getTotal() : 0);
+			}, (count1, count2) -> count1, LinkedHashMap::new));
+		}
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		return Flux.fromIterable(issueKeys)
+				.flatMapSequential(key -> findCommentPage(key, 0, 1).map(page -> Tuples.of(key, page.getTotal())),
+						jiraConfig.getEnrichmentConcurrency())
+				.doOnNext(tuple -> counts.put(tuple.getT1(), tuple.getT2()))
+				.then(Mono.fromSupplier(() -> counts))
+				.block();
+	}
+
+	/**
+	 * Look up users by user name, e.g. as mentioned in {@code [~name]}, with up
+	 * to {@link JiraConfig#getEnrichmentConcurrency()} requests in flight. Users
+	 * that don't exist are mapped to an empty {@code Optional}, and users whose
+	 * lookup failed are left out.
+	 */
+	public Map<String, Optional<JiraUser>> findUsers(Collection<String> userNames) {
+		if (replayArchive != null) {
+			logger.info("Replay mode: not looking up {} users", userNames.size());
+			return Collections.emptyMap();
+		}
+		Map<String, Optional<JiraUser>> users = new LinkedHashMap<>();
+		return Flux.fromIterable(userNames)
+				.flatMapSequential(name -> execute(enrichmentLimiter, () -> webClient.get()
+								.uri("/user?username={name}", name)
+								.retrieve()
+								.bodyToMono(JiraUser.class)
+								.timeout(Duration.ofSeconds(10)))
+						.map(Optional::of)
+						.onErrorResume(WebClientResponseException.NotFound.class, ex -> Mono.just(Optional.empty()))
+						.onErrorResume(ex -> {
+							logger.warn("Failed to look up user {}: {}", name, ex.getMessage());
+							return Mono.empty();
+						})
+						.map(user -> Tuples.of(name, user)), jiraConfig.getEnrichmentConcurrency())
+				.doOnNext(tuple -> users.put(tuple.getT1(), tuple.getT2()))
+				.then(Mono.fromSupplier(() -> users))
+				.block();
+	}
+
+	/**
+	 * Find issues for the given query, load remote links and commits for all
+	 * of them, and write them to an archive that can be replayed offline via
+	 * {@link JiraConfig#getReplayArchive()}.
+	 */
+	public JiraIssueArchive archiveIssues(String jql, File file) throws IOException {
+		Assert.state(replayArchive == null, "Can't archive issues while replaying an archive");
+		JiraIssueArchive.Metadata metadata = new JiraIssueArchive.Metadata();
+		metadata.setJql(jql);
+		metadata.setCreatedAt(DateTime.now());
+		if (jiraConfig.getProjectId() != null) {
+			metadata.setProject(findProject(jiraConfig.getProjectId()));
+		}
+		List<JiraIssue> issues = findIssuesVotesAndCommits(jql, Function.identity());
+		return writeArchive(metadata, issues, file);
+	}
+
+	/**
+	 * Read the issues of {@link JiraConfig#getProjectId()} from a Jira backup
+	 * export, and write them to an archive that can be replayed offline via
+	 * {@link JiraConfig#getReplayArchive()}, as for {@link #archiveIssues}.
+	 * The migration query is recorded, but not evaluated.
+	 * @param backupFile the {@code entities.xml} file of the backup, or the backup zip file
+	 * @param file the archive to write
+	 */
+	public JiraIssueArchive archiveBackup(File backupFile, File file) throws IOException {
+		JiraBackupReader.Content content =
+				new JiraBackupReader(backupFile, jiraConfig.getBaseUrl()).read(jiraConfig.getProjectId());
+		JiraIssueArchive.Metadata metadata = new JiraIssueArchive.Metadata();
+		metadata.setJql(jiraConfig.getMigrateJql());
+		metadata.setCreatedAt(DateTime.now());
+		metadata.setProject(content.getProject());
+		return writeArchive(metadata, content.getIssues(), file);
+	}
+
+	private JiraIssueArchive writeArchive(
+			JiraIssueArchive.Metadata metadata, List<JiraIssue> issues, File file) throws IOException {
+
+		JiraIssueArchive archive = new JiraIssueArchive(file, objectMapper);
+		archive.delete();
+		for (int i = 0; i < issues.size(); i += ARCHIVE_BATCH_SIZE) {
+			archive.append(issues.subList(i, Math.min(i + ARCHIVE_BATCH_SIZE, issues.size())));
+		}
+		archive.writeMetadata(metadata);
+		logger.info("Archived {} issues to {}", issues.size(), file);
+		return archive;
+	}
+
+	/**
+	 * Keep all issues of the project for local queries, if the given query is
+	 * for all of them, and they were loaded with all fields.
+	 */
+	private void updateStore(String jql, JiraFieldProfile profile, List<JiraIssue> issues) {
+		String projectKey = JiraIssueStore.getProjectKey(jql);
+		if (jiraConfig.isLocalQueries() && profile == JiraFieldProfile.FULL && projectKey != null) {
+			issueStore = new JiraIssueStore(projectKey, issues, timeZone);
+		}
+	}
+
+	/**
+	 * Read issues from the replay archive, and select the ones that match the
+	 * query, if it is in the subset of JQL supported by {@link JiraIssueStore}.
+	 * Otherwise, all issues of the archive are returned.
+	 */
+	private List<JiraIssue> replayIssues(String jql) {
+		JiraIssueArchive.Metadata metadata = readReplayMetadata();
+		try {
+			List<JiraIssue> issues = replayArchive.readAll();
+			initFixAndBackportVersions(issues);
+			if (jql.equals(metadata.getJql())) {
+				return issues;
+			}
+			if (JqlQuery.parseIfSupported(jql) == null) {
+				logger.warn("Replaying issues archived for \"{}\", the query \"{}\" is not evaluated offline",
+						metadata.getJql(), jql);
+				return issues;
+			}
+			JiraIssueStore store = new JiraIssueStore(JiraIssueStore.getProjectKey(metadata.getJql()), issues, timeZone);
+			if (store.getProjectKey() == null) {
+				logger.warn("Evaluating \"{}\" against the issues archived for \"{}\" only", jql, metadata.getJql());
+			}
+			return store.find(jql);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to read " + replayArchive.getFile(), ex);
+		}
+	}
+
+	private JiraIssueArchive.Metadata readReplayMetadata() {
+		try {
+			return replayArchive.readMetadata();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to read metadata for " + replayArchive.getFile(), ex);
+		}
+	}
+
+	/**
+	 * Load issues for the given query and field profile. If there are cached issues, only issues
+	 * updated since the cache watermark are fetched and merged into them.
+	 */
+	private Mono<List<JiraIssue>> getAndCollectIssues(String jql, JiraFieldProfile profile, SearchProgress progress) {
+		JiraIssueCache.Entry cached = (issueCache != null ? issueCache.load(cacheKey(jql, profile)) : null);
+		String query = jql;
+		if (cached != null) {
+			DateTime since = cached.getWatermark().minusHours(CACHE_WATERMARK_MARGIN_HOURS);
+			query = Jql.and(jql, Jql.updatedSince(since));
+		}
+		return getIssues(query, profile, progress)
+				.collectList()
+				.map(issues -> {
+					if (cached == null) {
+						return issues;
+					}
+					logger.info("Fetched {} issues updated since the cache watermark", issues.size());
+					return JiraIssueCache.merge(cached.getIssues(), issues);
 				})
+				.doOnNext(issues -> {
+					if (profile.includes("fixVersions")) {
+						initFixAndBackportVersions(issues);
+					}
+					else {
+						logger.info("Found {} issues", issues.size());
+					}
+				});
+	}
+
+	private static String cacheKey(String jql, JiraFieldProfile profile) {
+		return (profile != JiraFieldProfile.FULL ? profile + " " + jql : jql);
+	}
+
+	private void initFixAndBackportVersions(List<JiraIssue> issues) {
+		logger.info("Found {} issues", issues.size());
+		logger.debug("Interned {} distinct users, versions, etc.", interningModule.getPoolSize());
+
+		Map<String, JiraIssue> backportSubtasks = new JiraIssueGraph(issues).getBackportSubtasks();
+		issues.forEach(issue -> issue.initFixAndBackportVersions(backportSubtasks));
+	}
+
+	/**
+	 * Save issues to the cache, unless some search pages failed, in which case
+	 * advancing the watermark would hide the missing issues on the next run.
+	 */
+	private void updateCache(String jql, List<JiraIssue> issues, SearchProgress progress) {
+		if (issueCache == null) {
+			return;
+		}
+		if (!progress.isComplete()) {
+			logger.warn("Not updating cache: fetched {} of {} planned pages",
+					progress.getFetchedPages(), progress.getPlannedPages());
+			return;
+		}
+		issueCache.save(jql, issues);
+	}
+
+	/**
+	 * Load remote links and commits for issues that don't have them yet, with at
+	 * most {@link JiraConfig#getEnrichmentConcurrency()} requests in flight
+	 * across both kinds of request. Commit URLs are set last, and so mark an
+	 * issue as enriched, also in the cache.
+	 */
+	private Mono<Void> enrich(List<JiraIssue> issues) {
+		List<JiraIssue> toEnrich = issues.stream()
+				.filter(issue -> issue.getCommitUrls() == null)
+				.collect(Collectors.toList());
+		int requestsPerIssue = (jiraConfig.isFetchCommits() && jiraConfig.getCommitRepository() == null ? 2 : 1);
+		int concurrency = Math.max(1, jiraConfig.getEnrichmentConcurrency() / requestsPerIssue);
+		logger.info("Loading remote links{} for {} of {} issues ({} requests, up to {} at a time)",
+				(jiraConfig.isFetchCommits() ? " and commits" : ""), toEnrich.size(), issues.size(),
+				toEnrich.size() * requestsPerIssue, concurrency * requestsPerIssue);
+		if (toEnrich.isEmpty()) {
+			return Mono.empty();
+		}
+		ProgressTracker tracker = new ProgressTracker(toEnrich.size(), 50, 1000, logger.isDebugEnabled());
+		return Flux.fromIterable(toEnrich)
+				.flatMap(issue -> Mono.zip(findRemoteLinks(issue), findCommits(issue))
+						.doOnNext(tuple -> {
+							if (!tuple.getT1().isEmpty()) {
+								logger.debug("Found {} remote links for issue {}", tuple.getT1().size(), issue.getKey());
+								issue.getFields().setRemoteLinks(tuple.getT1());
+							}
+							issue.setCommitUrls(tuple.getT2());
+							tracker.updateForIteration();
+						}), concurrency)
 				.doOnComplete(tracker::stopProgress)
 				.then();
 	}
 
+	private Mono<List<RemoteLink>> findRemoteLinks(JiraIssue issue) {
+		return execute(enrichmentLimiter, () -> webClient.get()
+						.uri("/issue/{issueKey}/remotelink", issue.getKey())
+						.retrieve()
+						.bodyToMono(byte[].class)
+						.timeout(Duration.ofSeconds(10)))
+				.publishOn(decodeScheduler)
+				.map(this::decodeRemoteLinks)
+				.defaultIfEmpty(Collections.emptyList());
+	}
+
+	/**
+	 * Perform a request within the given limiter, once the circuit breaker lets
+	 * requests through, and retry transient failures with backoff.
+	 */
+	private <T> Mono<T> execute(AdaptiveLimiter limiter, Supplier<Mono<T>> request) {
+		return Mono.defer(() -> circuitBreaker.awaitClosed()
+						.then(limiter.limit(request))
+						.doOnSuccess(value -> circuitBreaker.recordSuccess())
+						.doOnError(circuitBreaker::recordFailure))
+				.retryWhen(retry);
+	}
+
+	/**
+	 * Load the remaining comments of an issue for which the search returned
+	 * only the first page of comments, page by page, within the enrichment
+	 * concurrency. The issue is returned as is if it has all comments.
+	 */
+	private Mono<JiraIssue> completeComments(JiraIssue issue) {
+		JiraCommentPage inlinePage = issue.getFields().getComment();
+		if (inlinePage == null || !inlinePage.isTruncated()) {
+			return Mono.just(issue);
+		}
+		logger.debug("Loading {} more comments for issue {}",
+				inlinePage.getTotal() - inlinePage.getComments().size(), issue.getKey());
+		return findCommentPage(issue.getKey(), inlinePage.getNextStartAt())
+				.expand(page -> (page.isTruncated() ?
+						findCommentPage(issue.getKey(), page.getNextStartAt()) : Mono.empty()))
+				.flatMapIterable(JiraCommentPage::getComments)
+				.collectList()
+				.map(comments -> {
+					List<JiraComment> allComments = new ArrayList<>(inlinePage.getComments());
+					allComments.addAll(comments);
+					inlinePage.setComments(allComments);
+					inlinePage.setMaxResults(allComments.size());
+					inlinePage.setTotal(inlinePage.getStartAt() + allComments.size());
+					return issue;
+				});
+	}
+
+	private Mono<JiraCommentPage> findCommentPage(String issueKey, int startAt) {
+		return findCommentPage(issueKey, startAt, COMMENT_PAGE_SIZE);
+	}
+
+	private Mono<JiraCommentPage> findCommentPage(String issueKey, int startAt, int maxResults) {
+		return execute(enrichmentLimiter, () -> webClient.get()
+						.uri("/issue/{issueKey}/comment?startAt={startAt}&maxResults={maxResults}",
+								issueKey, startAt, maxResults)
+						.retrieve()
+						.bodyToMono(byte[].class)
+						.timeout(Duration.ofSeconds(30)))
+				.publishOn(decodeScheduler)
+				.map(this::decodeCommentPage);
+	}
+
+	private JiraCommentPage decodeCommentPage(byte[] content) {
+		try {
+			return objectMapper.readValue(content, JiraCommentPage.class);
+		}
+		catch (IOException ex) {
+			throw new DecodingException("Failed to decode comments: " + ex.getMessage(), ex);
+		}
+	}
+
+	private List<RemoteLink> decodeRemoteLinks(byte[] content) {
+		try {
+			return objectMapper.readValue(content, REMOTE_LINKS_TYPE);
+		}
+		catch (IOException ex) {
+			throw new DecodingException("Failed to decode remote links: " + ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Fetch the first page to find out the total number of issues, and then
+	 * fan out to fetch the remaining pages, in {@code startAt} order. The number
+	 * of pages in flight and the page size adapt to Jira's responses, within
+	 * {@link JiraConfig#getSearchConcurrency()} and the configured page sizes,
+	 * and the next {@code startAt} is only worked out when a page is requested.
+	 * <p>Pages are decoded incrementally, one issue at a time, so the number of
+	 * issues buffered is bounded by {@link #ISSUE_PREFETCH} per page in flight.
+	 */
+	private Flux<JiraIssue> getIssues(String jql, JiraFieldProfile profile, SearchProgress progress) {
+		// Always request the max first, to find out if Jira caps the page size
+		int pageSize = jiraConfig.getMaxPageSize();
+		logger.info("Loading issues (up to {} per page) for jql=\"{}\"", pageSize, jql);
+		AtomicInteger plannedPages = progress.plannedPages;
+		AtomicInteger fetchedPages = progress.fetchedPages;
+		return searchPage(jql, profile, new SearchPage(0, pageSize), progress, true)
+				.concatWith(Flux.defer(() -> {
+					JiraSearchResult result = progress.getFirstResult();
+					long total = result.getTotal();
+					// Jira may cap maxResults below the requested page size
+					long maxPageSize = (result.getMaxResults() > 0 ? result.getMaxResults() : pageSize);
+					AtomicLong nextStartAt = new AtomicLong(maxPageSize);
+					logger.info("Found {} issues, fetching up to {} pages at a time",
+							total, jiraConfig.getSearchConcurrency());
+					return Flux.<SearchPage>generate(sink -> {
+								long startAt = nextStartAt.get();
+								if (startAt >= total) {
+									sink.complete();
+									return;
+								}
+								long size = Math.min(maxPageSize, pageSizeLimiter.getLimit());
+								nextStartAt.set(startAt + size);
+								plannedPages.incrementAndGet();
+								sink.next(new SearchPage(startAt, size));
+							})
+							.flatMapSequential(page -> searchPage(jql, profile, page, progress, false),
+									jiraConfig.getSearchConcurrency(), ISSUE_PREFETCH);
+				}))
+				.flatMapSequential(issue -> (profile.includes("comment") ? completeComments(issue) : Mono.just(issue)),
+						jiraConfig.getEnrichmentConcurrency(), ISSUE_PREFETCH)
+				.doOnComplete(() -> {
+					System.out.println("complete");
+					logger.info("Fetched {} of {} planned pages (current limits: {} pages at a time, {} per page)",
+							fetchedPages.get(), plannedPages.get(), searchLimiter.getLimit(), pageSizeLimiter.getLimit());
+				});
+	}
+
+	/**
+	 * Fetch one page of search results. Transient failures are retried with
+	 * backoff, skipping the issues already emitted by earlier attempts, and once
+	 * retries are exhausted, the error is propagated rather than dropping the page.
+	 * If the page has fewer issues than requested before the end of the results,
+	 * the missing range is fetched as another page, so no issues are skipped.
+	 */
+	private Flux<JiraIssue> searchPage(String jql, JiraFieldProfile profile,
+			SearchPage page, SearchProgress progress, boolean firstPage) {
+
+		AtomicReference<JiraSearchResultDecoder> lastDecoder = new AtomicReference<>();
+		AtomicLong emitted = new AtomicLong();
+		return Flux.defer(() -> {
+					JiraSearchResultDecoder decoder = new JiraSearchResultDecoder(objectMapper);
+					lastDecoder.set(decoder);
+					long alreadyEmitted = emitted.get();
+					return circuitBreaker.awaitClosed().thenMany(searchLimiter.limitMany(() -> {
+								long startTime = System.nanoTime();
+								return webClient.get()
+										.uri("/search?maxResults={maxResults}&startAt={startAt}&jql={jql}&fields={fields}",
+												page.maxResults(), page.startAt(), jql, profile.getFieldNames())
+										.retrieve()
+										.bodyToFlux(DataBuffer.class)
+										.publishOn(decodeScheduler, BUFFER_PREFETCH)
+										.concatMapIterable(decoder::decode, BUFFER_PREFETCH)
+										.concatWith(Flux.defer(() -> Flux.fromIterable(decoder.complete())))
+										.doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+										.doOnComplete(() -> pageSizeLimiter.record(startTime, null))
+										.doOnError(ex -> pageSizeLimiter.record(startTime, ex));
+							}))
+							.doOnComplete(circuitBreaker::recordSuccess)
+							.doOnError(circuitBreaker::recordFailure)
+							.skip(alreadyEmitted);
+				})
+				.doOnNext(issue -> emitted.incrementAndGet())
+				.retryWhen(retry)
+				.doOnError(ex -> logger.error("Failed to fetch issues at startAt " + page.startAt() + ": " + ex.getMessage()))
+				.doOnComplete(() -> {
+					JiraSearchResultDecoder decoder = lastDecoder.get();
+					if (firstPage) {
+						progress.setFirstResult(decoder.getSearchResult());
+					}
+					System.out.print(progress.fetchedPages.incrementAndGet() + " ");
+					logger.debug("Decoded {} issues at startAt {} in {} ms",
+							decoder.getIssueCount(), page.startAt(), decoder.getDecodeTime().toMillis());
+				})
+				.concatWith(Flux.defer(() -> fetchMissingIssues(jql, profile, page, progress, firstPage,
+						lastDecoder.get().getSearchResult(), emitted.get())));
+	}
+
+	private Flux<JiraIssue> fetchMissingIssues(String jql, JiraFieldProfile profile, SearchPage page,
+			SearchProgress progress, boolean firstPage, JiraSearchResult result, long received) {
+
+		// The first page is expected to be capped, and later pages start after the cap
+		long pageSize = (firstPage && result.getMaxResults() > 0 ?
+				Math.min(page.maxResults(), result.getMaxResults()) : page.maxResults());
+		long expected = Math.min(pageSize, result.getTotal() - page.startAt());
+		if (received >= expected) {
+			return Flux.empty();
+		}
+		if (received == 0) {
+			return Flux.error(new IllegalStateException("No issues at startAt " + page.startAt() +
+					" of " + result.getTotal() + " for jql=\"" + jql + "\""));
+		}
+		logger.warn("Got {} of {} issues at startAt {}, fetching the rest", received, expected, page.startAt());
+		progress.plannedPages.incrementAndGet();
+		return searchPage(jql, profile, new SearchPage(page.startAt() + received, expected - received), progress, false);
+	}
+
+	private record SearchPage(long startAt, long maxResults) {
+	}
+
+	/**
+	 * Tracks how many search pages were planned and fetched. Failed pages are
+	 * retried with backoff, and gaps in short pages are planned as extra pages,
+	 * so a search is complete only once all planned pages have been fetched.
+	 */
+	private static class SearchProgress {
+
+		private final AtomicInteger plannedPages = new AtomicInteger(1);
+
+		private final AtomicInteger fetchedPages = new AtomicInteger();
+
+		private volatile JiraSearchResult firstResult;
+
+		int getPlannedPages() {
+			return plannedPages.get();
+		}
+
+		int getFetchedPages() {
+			return fetchedPages.get();
+		}
+
+		boolean isComplete() {
+			return fetchedPages.get() >= plannedPages.get();
+		}
+
+		JiraSearchResult getFirstResult() {
+			return firstResult;
+		}
+
+		void setFirstResult(JiraSearchResult firstResult) {
+			this.firstResult = firstResult;
+		}
+	}
+
+	/**
+	 * Find commits in the local clone if {@link JiraConfig#getCommitRepository()}
+	 * is set, or else through the dev-status API, unless turned off via
+	 * {@link JiraConfig#isFetchCommits()}.
+	 */
+	private Mono<List<String>> findCommits(JiraIssue issue) {
+		if (!jiraConfig.isFetchCommits()) {
+			return Mono.just(Collections.emptyList());
+		}
+		if (jiraConfig.getCommitRepository() != null) {
+			return Mono.fromCallable(() -> getCommitIndex().getCommitUrls(issue.getKey()));
+		}
+		return execute(enrichmentLimiter, () -> webClient.get()
+						.uri(builder -> builder
+								.replacePath("jira/rest/dev-status/1.0/issue/detail")
+								.query("issueId={id}&applicationType=github&dataType=repository")
+								.build(issue.getId()))
+						.retrieve()
+						.bodyToMono(MAP_TYPE)
+						.timeout(Duration.ofSeconds(10)))
+				.map(this::extractCommits);
+	}
+
+	private synchronized LocalCommitIndex getCommitIndex() throws IOException {
+		if (commitIndex == null) {
+			Assert.state(jiraConfig.getCommitUrlPrefix() != null,
+					"jira.commit-url-prefix is required with jira.commit-repository");
+			commitIndex = LocalCommitIndex.build(new File(jiraConfig.getCommitRepository()),
+					jiraConfig.getProjectId(), jiraConfig.getCommitUrlPrefix());
+		}
+		return commitIndex;
+	}
+
 	@SuppressWarnings("unchecked")
 	private List<String> extractCommits(Map<String, Object> result) {
 		List<Map<String, Object>> details = (List<Map<String, Object>>) result.get("detail");
@@ -206,19 +852,24 @@ public class JiraClient {
 	}
 
 	public void addComments(Map<String, String> comments) {
+		if (replayArchive != null) {
+			logger.info("Replay mode: not adding comments for {} issues", comments.size());
+			comments.forEach((key, body) -> logger.debug("{}: {}", key, body));
+			return;
+		}
 		logger.info("Adding comments for {} issues", comments.size());
 		ProgressTracker tracker = new ProgressTracker(comments.size(), 50, 1000, logger.isDebugEnabled());
-		int concurrency = 1;
+		int concurrency = jiraConfig.getWriteConcurrency();
 		Flux.fromIterable(comments.entrySet())
 				.doOnNext(o -> tracker.updateForIteration())
-				.flatMap(entry -> webClient.post().uri("/issue/{key}/comment", entry.getKey())
-						.bodyValue(Collections.singletonMap("body", entry.getValue()))
-						.retrieve()
-						.bodyToMono(Void.class)
-						.doOnError(WebClientResponseException.class,
-								ex -> logger.error(ex.getStatusCode() + ": " + ex.getResponseBodyAsString()))
-						.timeout(Duration.ofSeconds(10))
-						.retry(3), concurrency)
+				.flatMap(entry -> execute(writeLimiter, () -> webClient.post().uri("/issue/{key}/comment", entry.getKey())
+								.bodyValue(Collections.singletonMap("body", entry.getValue()))
+								.retrieve()
+								.bodyToMono(Void.class)
+								.timeout(Duration.ofSeconds(10))
+								.doOnError(WebClientResponseException.class,
+										ex -> logger.error(ex.getStatusCode() + ": " + ex.getResponseBodyAsString()))),
+						concurrency)
 				.doOnTerminate(tracker::stopProgress)
 				.blockLast();
 	}
@@ -17,9 +17,14 @@ package io.pivotal.jira;
 
 import org.joda.time.DateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 /**
  * @author Rob Winch
@@ -32,6 +37,23 @@ public class JiraComment {
     JiraUser author;
     DateTime created;
 	String body;
-	JiraCommentVisibility visibility;
+	@JsonProperty
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	LazyJsonValue<JiraCommentVisibility> visibility;
+
+
+	/**
+	 * Return the visibility restriction, bound from JSON on first access.
+	 */
+	@JsonIgnore
+	public JiraCommentVisibility getVisibility() {
+		return LazyJsonValue.get(visibility);
+	}
+
+	@JsonIgnore
+	public void setVisibility(JiraCommentVisibility visibility) {
+		this.visibility = LazyJsonValue.of(visibility);
+	}
 
 }
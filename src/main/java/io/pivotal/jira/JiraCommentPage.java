@@ -18,6 +18,7 @@ package io.pivotal.jira;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import lombok.Data;
@@ -30,9 +31,33 @@ import lombok.Data;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class JiraCommentPage {
 
+	int startAt;
+
+	int maxResults;
+
+	int total;
+
 	List<JiraComment> comments;
 
 
+	/**
+	 * Whether Jira has more comments than the ones in this page, which for
+	 * search results means the issue has more comments than Jira returns inline.
+	 */
+	@JsonIgnore
+	public boolean isTruncated() {
+		return (comments != null && !comments.isEmpty() && getNextStartAt() < total);
+	}
+
+	/**
+	 * Return the index of the comment after the last one in this page.
+	 */
+	@JsonIgnore
+	public int getNextStartAt() {
+		return startAt + (comments != null ? comments.size() : 0);
+	}
+
+	@JsonIgnore
 	public List<JiraComment> getVisibleComments() {
 		return comments.stream()
 				.filter(c -> {
@@ -15,6 +15,8 @@
  */
 package io.pivotal.jira;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -59,6 +61,117 @@ public class JiraConfig {
 	 */
 	String component;
 
+	/**
+	 * Max number of search result pages to fetch concurrently, once the total
+	 * number of issues is known from the first page. Defaults to 5. The actual
+	 * number is reduced while Jira responds slowly or with errors.
+	 */
+	int searchConcurrency = 5;
+
+	/**
+	 * Lower bound for the number of issues per search page, when the page size
+	 * is reduced while Jira responds slowly or with errors. Defaults to 100.
+	 */
+	int minPageSize = 100;
+
+	/**
+	 * Upper bound, and initial value, for the number of issues per search page.
+	 * Defaults to 1000, and Jira may return fewer.
+	 */
+	int maxPageSize = 1000;
+
+	/**
+	 * Search pages slower than this reduce the number of pages in flight and
+	 * the page size. Defaults to 30 seconds.
+	 */
+	Duration slowSearchPageThreshold = Duration.ofSeconds(30);
+
+	/**
+	 * Number of threads used to decode Jira JSON responses, separately from the
+	 * network I/O threads. Defaults to the number of available processors.
+	 */
+	int decodeParallelism = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * (Optional) directory for caching issues between runs. If set, only issues
+	 * updated since the previous run are fetched from Jira.
+	 */
+	String cacheDir;
+
+	/**
+	 * (Optional) archive file written with {@code JiraArchiveApp}. If set, issues
+	 * and the project are read from the archive instead of Jira, and nothing is
+	 * written to Jira.
+	 */
+	String replayArchive;
+
+	/**
+	 * Whether to look up commits for each issue through the dev-status API, one
+	 * request per issue. Turn off for projects without commits linked in Jira.
+	 */
+	boolean fetchCommits = true;
+
+	/**
+	 * (Optional) local clone of the project repository. If set, commits are
+	 * looked up in its history, indexed once, instead of through the dev-status API.
+	 */
+	String commitRepository;
+
+	/**
+	 * URL to append a commit hash to for commits found in {@link #commitRepository},
+	 * e.g. {@code https://github.com/apache/maven/commit/}.
+	 */
+	String commitUrlPrefix;
+
+	/**
+	 * Max number of requests in flight to load remote links and commits for
+	 * the issues to import. Defaults to 8.
+	 */
+	int enrichmentConcurrency = 8;
+
+	/**
+	 * Max number of write requests in flight, e.g. to add comments. Defaults to 1.
+	 */
+	int writeConcurrency = 1;
+
+	/**
+	 * Max number of issues per shard planned with {@link JiraShardPlanner}. Defaults to 700.
+	 */
+	int shardMaxIssues = 700;
+
+	/**
+	 * Whether to restart a migration in two steps: first load all issues
+	 * without text content and comments, and then load the remaining issues to
+	 * import in full, {@code key in (...)} batch by batch. Defaults to true.
+	 */
+	boolean lightRestart = true;
+
+	/**
+	 * Whether to answer queries for a part of the project from the issues in
+	 * memory, once all issues of the project have been loaded, see
+	 * {@link JiraIssueStore}. Defaults to true.
+	 */
+	boolean localQueries = true;
+
+	/**
+	 * (Optional) time zone of the Jira user, e.g. "Europe/London", in which Jira
+	 * reads dates in queries. Queries with {@code created} or {@code updated}
+	 * clauses are only answered from memory if set, see {@link JiraIssueStore}.
+	 */
+	String timeZone;
+
+	/**
+	 * Max estimated number of comments per shard planned with {@link JiraShardPlanner}.
+	 * Defaults to 5000.
+	 */
+	int shardMaxComments = 5000;
+
+	/**
+	 * Number of issues whose comments are counted to estimate the comments per
+	 * key range when planning shards. Defaults to 200.
+	 */
+	int shardSampleSize = 200;
+
 	public String getMigrateJql() {
 		if(null != migrateJql) {
 			return migrateJql;
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Named sets of fields to request in Jira searches, so tools that only need
+ * a few fields don't download comments and descriptions. Fields not requested
+ * are {@code null} in the resulting {@link JiraIssue}.
+ */
+public enum JiraFieldProfile {
+
+	/**
+	 * Issue keys, along with what's needed to tell restricted issues apart and
+	 * to refresh cached results.
+	 */
+	KEYS("security,updated"),
+
+	/**
+	 * All fields except text content and bulky fields: no description,
+	 * comments, attachments or watches.
+	 */
+	METADATA("summary,assignee,components,created,creator,versions,fixVersions,issuetype,reporter," +
+			"resolution,status,issuelinks,updated,parent,subtasks,labels,security,priority,votes"),
+
+	/**
+	 * All fields used for the migration.
+	 */
+	FULL(JiraIssue.FIELD_NAMES);
+
+
+	private final String fieldNames;
+
+	private final Set<String> fields;
+
+
+	JiraFieldProfile(String fieldNames) {
+		this.fieldNames = fieldNames;
+		this.fields = Arrays.stream(fieldNames.split(",")).collect(Collectors.toSet());
+	}
+
+
+	/**
+	 * Return the value for the {@code fields} parameter of a search.
+	 */
+	public String getFieldNames() {
+		return fieldNames;
+	}
+
+	public boolean includes(String field) {
+		return fields.contains(field);
+	}
+
+}
@@ -17,6 +17,7 @@ package io.pivotal.jira;
 
 import java.util.Comparator;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -33,6 +34,7 @@ import lombok.NoArgsConstructor;
 public class JiraFixVersion {
 	String name;
 
+	@JsonIgnore
 	public boolean isBeforeGA() {
 		return name.matches(".*RC[1-9]") || name.matches(".*M[1-9]");
 	}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Jackson module that interns the small value objects repeated across issues
+ * and comments, such as users, versions and components. Each deserialized
+ * value is replaced with the first equal instance seen by this module, so the
+ * same user or version is held once no matter how many issues refer to it.
+ *
+ * <p>Interned instances are shared and must not be modified.
+ */
+class JiraInterningModule extends SimpleModule {
+
+	static final Set<Class<?>> INTERNED_TYPES = Set.of(JiraUser.class, JiraVersion.class, JiraFixVersion.class,
+			JiraComponent.class, JiraIssueType.class, JiraStatus.class, JiraPriority.class);
+
+
+	private final Map<Object, Object> pool = new ConcurrentHashMap<>();
+
+
+	JiraInterningModule() {
+		super(JiraInterningModule.class.getSimpleName());
+		setDeserializerModifier(new BeanDeserializerModifier() {
+
+			@Override
+			public JsonDeserializer<?> modifyDeserializer(
+					DeserializationConfig config, BeanDescription description, JsonDeserializer<?> deserializer) {
+
+				return (INTERNED_TYPES.contains(description.getBeanClass()) ?
+						new InterningDeserializer(deserializer) : deserializer);
+			}
+		});
+	}
+
+
+	/**
+	 * Return the number of distinct values interned so far.
+	 */
+	int getPoolSize() {
+		return pool.size();
+	}
+
+	Object intern(Object value) {
+		Object existing = pool.putIfAbsent(value, value);
+		return (existing != null ? existing : value);
+	}
+
+
+	private class InterningDeserializer extends DelegatingDeserializer {
+
+		InterningDeserializer(JsonDeserializer<?> delegate) {
+			super(delegate);
+		}
+
+		@Override
+		protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> delegate) {
+			return new InterningDeserializer(delegate);
+		}
+
+		@Override
+		public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+			Object value = super.deserialize(parser, context);
+			return (value != null ? intern(value) : null);
+		}
+	}
+
+}
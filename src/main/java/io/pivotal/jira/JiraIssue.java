@@ -21,9 +21,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import org.joda.time.DateTime;
 
 import org.springframework.web.util.UriComponentsBuilder;
@@ -39,7 +43,7 @@ public class JiraIssue {
 	public static final String FIELD_NAMES = "summary,comment,assignee,components,created,creator," +
 			"description,versions,fixVersions,issuetype,reporter,resolution,status,issuelinks," +
 			"resolution,updated,parent,subtasks,labels,attachment,watches," +
-			"customfield_10120,customfield_10684,security,priority";
+			"customfield_10120,customfield_10684,security,priority,votes";
 
 
 	String id;
@@ -57,13 +61,20 @@ public class JiraIssue {
 	/** Initialized via {@link #initFixAndBackportVersions()} **/
 	List<JiraFixVersion> backportVersions = Collections.emptyList();
 
-	/** Initialized via separate HTTP call to obtain votes for the issue */
-	int votes = -1;
-
-	/** Retrieved via separate HTTP call */
+	/** Retrieved via separate HTTP call, or empty if {@link JiraConfig#isFetchCommits()} is off */
 	List<String> commitUrls;
 
 
+	/**
+	 * Return the number of votes returned with the search fields, or -1 if not loaded.
+	 */
+	@JsonIgnore
+	public int getVotes() {
+		JiraVotes votes = (fields != null ? fields.getVotes() : null);
+		return (votes != null ? votes.getVotes() : -1);
+	}
+
+	@JsonIgnore
 	public String getBrowserUrl() {
 		return getBrowserUrlFor(key);
 	}
@@ -132,22 +143,65 @@ public class JiraIssue {
 		JiraResolution resolution;
 		JiraUser reporter;
 		JiraUser assignee;
-		List<IssueLink> issuelinks;
+		@JsonProperty
+		@Getter(AccessLevel.NONE)
+		@Setter(AccessLevel.NONE)
+		LazyJsonValue<List<IssueLink>> issuelinks;
 		List<RemoteLink> remoteLinks = Collections.emptyList();
 		JiraIssue parent;
 		List<JiraIssue> subtasks;
 		List<String> labels;
-		List<JiraAttachment> attachment;
-		JiraWatcher watches;
+		@JsonProperty
+		@Getter(AccessLevel.NONE)
+		@Setter(AccessLevel.NONE)
+		LazyJsonValue<List<JiraAttachment>> attachment;
+		@JsonProperty
+		@Getter(AccessLevel.NONE)
+		@Setter(AccessLevel.NONE)
+		LazyJsonValue<JiraWatcher> watches;
+		JiraVotes votes;
 		@JsonProperty("customfield_10120")
 		String referenceUrl;
 		@JsonProperty("customfield_10684")
 		String pullRequestUrl;
 		JiraSecurity security;
 
+		@JsonIgnore
 		public boolean isPublic() {
 			return security == null || security.getName().equals("Public");
 		}
+
+		// Rarely used fields, bound on first access
+
+		@JsonIgnore
+		public List<IssueLink> getIssuelinks() {
+			return LazyJsonValue.get(issuelinks);
+		}
+
+		@JsonIgnore
+		public void setIssuelinks(List<IssueLink> issuelinks) {
+			this.issuelinks = LazyJsonValue.of(issuelinks);
+		}
+
+		@JsonIgnore
+		public List<JiraAttachment> getAttachment() {
+			return LazyJsonValue.get(attachment);
+		}
+
+		@JsonIgnore
+		public void setAttachment(List<JiraAttachment> attachment) {
+			this.attachment = LazyJsonValue.of(attachment);
+		}
+
+		@JsonIgnore
+		public JiraWatcher getWatches() {
+			return LazyJsonValue.get(watches);
+		}
+
+		@JsonIgnore
+		public void setWatches(JiraWatcher watches) {
+			this.watches = LazyJsonValue.of(watches);
+		}
 	}
 
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import org.joda.time.DateTime;
+
+/**
+ * Offline archive of Jira issues, including remote links, votes and commits,
+ * for replaying searches without access to Jira.
+ *
+ * <p>Issues are stored as gzipped NDJSON, one issue per line. Each call to
+ * {@link #append(List)} adds a separate gzip member, so the file can be added
+ * to without rewriting it, and an issue appended again replaces the earlier
+ * one. A key index next to the archive ({@code .idx}, lines of key, member
+ * offset and line number) allows reading single issues, and a metadata file
+ * ({@code .meta.json}) holds the query and the project.
+ */
+public class JiraIssueArchive {
+
+	private final File file;
+
+	private final File indexFile;
+
+	private final File metadataFile;
+
+	private final ObjectMapper objectMapper;
+
+
+	public JiraIssueArchive(File file, ObjectMapper objectMapper) {
+		this.file = file;
+		this.indexFile = new File(file.getPath() + ".idx");
+		this.metadataFile = new File(file.getPath() + ".meta.json");
+		this.objectMapper = objectMapper;
+	}
+
+
+	public File getFile() {
+		return file;
+	}
+
+	public boolean exists() {
+		return file.exists();
+	}
+
+	/**
+	 * Delete the archive along with its index and metadata.
+	 */
+	public void delete() throws IOException {
+		Files.deleteIfExists(file.toPath());
+		Files.deleteIfExists(indexFile.toPath());
+		Files.deleteIfExists(metadataFile.toPath());
+	}
+
+	/**
+	 * Append the given issues as a new gzip member, and add them to the index.
+	 */
+	public void append(List<JiraIssue> issues) throws IOException {
+		long offset = (file.exists() ? file.length() : 0);
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(
+				Files.newOutputStream(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND)),
+				StandardCharsets.UTF_8));
+			 Writer indexWriter = Files.newBufferedWriter(indexFile.toPath(), StandardCharsets.UTF_8,
+					 StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+
+			for (int i = 0; i < issues.size(); i++) {
+				JiraIssue issue = issues.get(i);
+				writer.write(objectMapper.writeValueAsString(issue));
+				writer.write('\n');
+				indexWriter.write(issue.getKey() + " " + offset + " " + i + "\n");
+			}
+		}
+	}
+
+	/**
+	 * Read all issues, in the order they were first appended.
+	 */
+	public List<JiraIssue> readAll() throws IOException {
+		Map<String, JiraIssue> issues = new LinkedHashMap<>();
+		try (BufferedReader reader = openReader(0)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isEmpty()) {
+					JiraIssue issue = objectMapper.readValue(line, JiraIssue.class);
+					issues.put(issue.getKey(), issue);
+				}
+			}
+		}
+		return new ArrayList<>(issues.values());
+	}
+
+	/**
+	 * Read a single issue through the index.
+	 * @return the issue, or {@code null} if not in the archive
+	 */
+	public JiraIssue read(String key) throws IOException {
+		long[] position = readIndex().get(key);
+		if (position == null) {
+			return null;
+		}
+		try (BufferedReader reader = openReader(position[0])) {
+			for (long i = 0; i < position[1]; i++) {
+				reader.readLine();
+			}
+			return objectMapper.readValue(reader.readLine(), JiraIssue.class);
+		}
+	}
+
+	private Map<String, long[]> readIndex() throws IOException {
+		Map<String, long[]> index = new HashMap<>();
+		for (String line : Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8)) {
+			String[] parts = line.split(" ");
+			if (parts.length == 3) {
+				index.put(parts[0], new long[] {Long.parseLong(parts[1]), Long.parseLong(parts[2])});
+			}
+		}
+		return index;
+	}
+
+	private BufferedReader openReader(long offset) throws IOException {
+		InputStream input = Files.newInputStream(file.toPath());
+		input.skipNBytes(offset);
+		return new BufferedReader(new InputStreamReader(new GZIPInputStream(input), StandardCharsets.UTF_8));
+	}
+
+	public void writeMetadata(Metadata metadata) throws IOException {
+		objectMapper.writeValue(metadataFile, metadata);
+	}
+
+	public Metadata readMetadata() throws IOException {
+		return objectMapper.readValue(metadataFile, Metadata.class);
+	}
+
+
+	@Data
+	public static class Metadata {
+
+		String jql;
+
+		DateTime createdAt;
+
+		JiraProject project;
+
+	}
+
+}
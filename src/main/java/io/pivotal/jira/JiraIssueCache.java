@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.joda.time.DateTime;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * On-disk cache for the issues returned by a JQL query, one gzipped JSON file
+ * per query under a directory per project. Cached issues include the data loaded
+ * through separate requests such as remote links, votes and commit URLs.
+ *
+ * <p>The cache records a watermark, the latest {@code updated} time among its
+ * issues, so that the next run only needs to fetch issues updated since then
+ * and merge them in with {@link #merge(List, List)}.
+ */
+public class JiraIssueCache {
+
+	private static final Logger logger = LogManager.getLogger(JiraIssueCache.class);
+
+
+	private final File dir;
+
+	private final ObjectMapper objectMapper;
+
+
+	public JiraIssueCache(File dir, ObjectMapper objectMapper) {
+		this.dir = dir;
+		this.objectMapper = objectMapper;
+	}
+
+
+	/**
+	 * Load the cached issues for the given query.
+	 * @return the cache entry, or {@code null} if there is none or it can't be read
+	 */
+	public Entry load(String jql) {
+		File file = getFile(jql);
+		if (!file.exists()) {
+			return null;
+		}
+		try (InputStream input = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+			Entry entry = objectMapper.readValue(input, Entry.class);
+			if (!jql.equals(entry.getJql()) || entry.getWatermark() == null) {
+				return null;
+			}
+			logger.info("Loaded {} issues from cache {} (watermark {})",
+					entry.getIssues().size(), file, entry.getWatermark());
+			return entry;
+		}
+		catch (IOException ex) {
+			logger.warn("Ignoring unreadable cache " + file + ": " + ex.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Replace the cached issues for the given query. The file is written to a
+	 * temporary location first, so an interrupted run leaves the previous
+	 * cache in place.
+	 */
+	public void save(String jql, List<JiraIssue> issues) {
+		Entry entry = new Entry();
+		entry.setJql(jql);
+		entry.setWatermark(issues.stream()
+				.map(issue -> issue.getFields().getUpdated())
+				.filter(Objects::nonNull)
+				.max(DateTime::compareTo)
+				.orElse(null));
+		entry.setIssues(issues);
+		File file = getFile(jql);
+		try {
+			Files.createDirectories(dir.toPath());
+			File tempFile = new File(dir, file.getName() + ".tmp");
+			try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(tempFile.toPath()))) {
+				objectMapper.writeValue(output, entry);
+			}
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			logger.info("Saved {} issues to cache {} (watermark {})", issues.size(), file, entry.getWatermark());
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to write cache " + file + ": " + ex.getMessage());
+		}
+	}
+
+	private File getFile(String jql) {
+		return new File(dir, DigestUtils.md5DigestAsHex(jql.getBytes(StandardCharsets.UTF_8)) + ".json.gz");
+	}
+
+	/**
+	 * Merge freshly fetched issues into the cached ones. Fetched issues replace
+	 * cached issues with the same key in place, and new issues are appended.
+	 */
+	public static List<JiraIssue> merge(List<JiraIssue> cached, List<JiraIssue> fetched) {
+		Map<String, JiraIssue> merged = new LinkedHashMap<>();
+		cached.forEach(issue -> merged.put(issue.getKey(), issue));
+		fetched.forEach(issue -> merged.put(issue.getKey(), issue));
+		return new ArrayList<>(merged.values());
+	}
+
+
+	@Data
+	public static class Entry {
+
+		String jql;
+
+		DateTime watermark;
+
+		List<JiraIssue> issues;
+
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Index over all issues of a migration, built once after loading, to look up
+ * parents, sub-tasks, links and restricted issues by key in constant time
+ * rather than by scanning lists. Apart from "Backport" sub-tasks, the graph
+ * does not hold on to the issues, so they can be released once converted.
+ *
+ * <p>Issues that are not public, and any other keys passed in as restricted,
+ * e.g. from a separate query, are tracked in a bit set. Sub-tasks and links to
+ * restricted issues are left out of {@link #getSubtasks} and {@link #getIssueLinks}.
+ */
+public class JiraIssueGraph {
+
+	private final Map<String, Integer> indexes = new HashMap<>();
+
+	private final BitSet restricted = new BitSet();
+
+	private final Map<String, String> parentKeys = new HashMap<>();
+
+	private final Map<String, List<String>> subtaskKeys = new HashMap<>();
+
+	private final Map<String, List<IssueLink>> outwardLinks = new HashMap<>();
+
+	private final Map<String, List<IssueLink>> inwardLinks = new HashMap<>();
+
+	private final Map<String, JiraIssue> backportSubtasks = new HashMap<>();
+
+
+	public JiraIssueGraph(Collection<JiraIssue> issues) {
+		this(issues, Collections.emptyList());
+	}
+
+	/**
+	 * Create the graph for the given issues.
+	 * @param issues the issues, including restricted ones
+	 * @param restrictedKeys keys of further restricted issues that are not loaded
+	 */
+	public JiraIssueGraph(Collection<JiraIssue> issues, Collection<String> restrictedKeys) {
+		for (JiraIssue issue : issues) {
+			String key = issue.getKey();
+			JiraIssue.Fields fields = issue.getFields();
+			if (!fields.isPublic()) {
+				this.restricted.set(index(key));
+			}
+			if (fields.getParent() != null) {
+				addSubtask(fields.getParent().getKey(), key);
+			}
+			if (fields.getSubtasks() != null) {
+				fields.getSubtasks().forEach(subtask -> addSubtask(key, subtask.getKey()));
+			}
+			if (fields.getIssuelinks() != null) {
+				for (IssueLink link : fields.getIssuelinks()) {
+					if (link.getOutwardIssue() != null) {
+						this.outwardLinks.computeIfAbsent(key, k -> new ArrayList<>()).add(link);
+					}
+					else if (link.getInwardIssue() != null) {
+						this.inwardLinks.computeIfAbsent(key, k -> new ArrayList<>()).add(link);
+					}
+				}
+			}
+			if (fields.getIssuetype() != null && "Backport".equalsIgnoreCase(fields.getIssuetype().getName()) &&
+					fields.getFixVersions() != null) {
+				this.backportSubtasks.put(key, issue);
+			}
+		}
+		restrictedKeys.forEach(key -> this.restricted.set(index(key)));
+	}
+
+	private int index(String key) {
+		return this.indexes.computeIfAbsent(key, k -> this.indexes.size());
+	}
+
+	private void addSubtask(String parentKey, String subtaskKey) {
+		if (this.parentKeys.putIfAbsent(subtaskKey, parentKey) == null) {
+			this.subtaskKeys.computeIfAbsent(parentKey, k -> new ArrayList<>()).add(subtaskKey);
+		}
+	}
+
+
+	public boolean isRestricted(String key) {
+		Integer index = this.indexes.get(key);
+		return (index != null && this.restricted.get(index));
+	}
+
+	public int getRestrictedCount() {
+		return this.restricted.cardinality();
+	}
+
+	/**
+	 * Return the key of the parent of the given issue, or {@code null}.
+	 */
+	public String getParentKey(String key) {
+		return this.parentKeys.get(key);
+	}
+
+	/**
+	 * Return the keys of all sub-tasks of the given issue, including restricted ones.
+	 */
+	public List<String> getSubtaskKeys(String key) {
+		return this.subtaskKeys.getOrDefault(key, Collections.emptyList());
+	}
+
+	public List<IssueLink> getOutwardLinks(String key) {
+		return this.outwardLinks.getOrDefault(key, Collections.emptyList());
+	}
+
+	public List<IssueLink> getInwardLinks(String key) {
+		return this.inwardLinks.getOrDefault(key, Collections.emptyList());
+	}
+
+	/**
+	 * Return the sub-tasks of the issue that are not restricted.
+	 */
+	public List<JiraIssue> getSubtasks(JiraIssue issue) {
+		List<JiraIssue> subtasks = issue.getFields().getSubtasks();
+		if (subtasks == null || subtasks.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return subtasks.stream().filter(subtask -> !isRestricted(subtask.getKey())).collect(Collectors.toList());
+	}
+
+	/**
+	 * Return the links of the issue, in their original order, without links
+	 * to restricted issues.
+	 */
+	public List<IssueLink> getIssueLinks(JiraIssue issue) {
+		List<IssueLink> links = issue.getFields().getIssuelinks();
+		if (links == null || links.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return links.stream()
+				.filter(link -> !isRestricted(link.getOutwardIssue() != null ?
+						link.getOutwardIssue().getKey() : link.getInwardIssue().getKey()))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Return loaded sub-tasks of type "Backport" by key, to aggregate their fix
+	 * versions into the parent issue, see {@link JiraIssue#initFixAndBackportVersions(Map)}.
+	 */
+	public Map<String, JiraIssue> getBackportSubtasks() {
+		return Collections.unmodifiableMap(this.backportSubtasks);
+	}
+
+}
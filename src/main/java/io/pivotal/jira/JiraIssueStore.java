@@ -0,0 +1,431 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.DateTimeFormatterBuilder;
+import org.joda.time.format.DateTimeParser;
+
+/**
+ * In-memory store of all issues of a project, with indexes on key, id,
+ * component, type, status, fix version, resolution, security level, priority,
+ * and created and updated time, to answer queries in the subset of JQL
+ * supported by {@link JqlQuery} without going to Jira.
+ *
+ * <p>Each clause is evaluated to a bit set of issue positions through an
+ * index, and the bit sets are then combined for {@code AND}, {@code OR} and
+ * {@code NOT}. As in Jira, {@code !=} and {@code not in} do not match issues
+ * without a value.
+ *
+ * <p>Jira reads dates in queries in the time zone of the Jira user. Unless that
+ * time zone is known, queries with {@code created} or {@code updated} clauses
+ * are not {@linkplain #covers covered}, and are evaluated in the JVM default
+ * time zone if passed to {@link #find} anyway.
+ */
+public class JiraIssueStore {
+
+	private static final DateTimeFormatter DATE_PARSER = new DateTimeFormatterBuilder()
+			.append(null, new DateTimeParser[] {
+					DateTimeFormat.forPattern("yyyy-MM-dd HH:mm").getParser(),
+					DateTimeFormat.forPattern("yyyy/MM/dd HH:mm").getParser(),
+					DateTimeFormat.forPattern("yyyy-MM-dd").getParser(),
+					DateTimeFormat.forPattern("yyyy/MM/dd").getParser() })
+			.toFormatter();
+
+	private static final Comparator<String> KEY_COMPARATOR = Comparator
+			.comparing((String key) -> key.substring(0, Math.max(0, key.lastIndexOf('-'))))
+			.thenComparingLong(JiraIssueStore::keyNumber);
+
+
+	private final String projectKey;
+
+	private final DateTimeZone timeZone;
+
+	private final DateTimeFormatter dateParser;
+
+	private final List<JiraIssue> issues;
+
+	private final Map<String, Integer> positionsByKey = new HashMap<>();
+
+	private final Map<String, Integer> positionsById = new HashMap<>();
+
+	private final Map<String, Map<String, BitSet>> indexes = new HashMap<>();
+
+	private final Map<String, DateIndex> dateIndexes = new HashMap<>();
+
+
+	/**
+	 * Create a store for the given issues.
+	 * @param projectKey the project that the issues are all of, or {@code null}
+	 * if the issues are only a part of it
+	 * @param issues the issues
+	 */
+	public JiraIssueStore(String projectKey, Collection<JiraIssue> issues) {
+		this(projectKey, issues, null);
+	}
+
+	/**
+	 * Create a store for the given issues.
+	 * @param projectKey the project that the issues are all of, or {@code null}
+	 * if the issues are only a part of it
+	 * @param issues the issues
+	 * @param timeZone the time zone of the Jira user, or {@code null} if not known
+	 */
+	public JiraIssueStore(String projectKey, Collection<JiraIssue> issues, DateTimeZone timeZone) {
+		this.projectKey = projectKey;
+		this.timeZone = timeZone;
+		this.dateParser = DATE_PARSER.withZone(timeZone != null ? timeZone : DateTimeZone.getDefault());
+		this.issues = List.copyOf(issues);
+		for (int i = 0; i < this.issues.size(); i++) {
+			JiraIssue issue = this.issues.get(i);
+			JiraIssue.Fields fields = issue.getFields();
+			this.positionsByKey.put(issue.getKey(), i);
+			if (issue.getId() != null) {
+				this.positionsById.put(issue.getId(), i);
+			}
+			index("project", i, Stream.of(issue.getKey().substring(0, Math.max(0, issue.getKey().lastIndexOf('-')))));
+			index("type", i, Stream.ofNullable(fields.getIssuetype()).map(JiraIssueType::getName));
+			index("status", i, Stream.ofNullable(fields.getStatus()).map(JiraStatus::getName));
+			index("resolution", i, Stream.ofNullable(fields.getResolution()).map(JiraResolution::getName));
+			index("level", i, Stream.ofNullable(fields.getSecurity()).map(JiraSecurity::getName));
+			index("priority", i, Stream.ofNullable(fields.getPriority()).map(JiraPriority::getName));
+			index("component", i, Stream.ofNullable(fields.getComponents()).flatMap(List::stream).map(JiraComponent::getName));
+			index("fixversion", i, Stream.ofNullable(fields.getFixVersions()).flatMap(List::stream).map(JiraFixVersion::getName));
+		}
+		this.dateIndexes.put("created", new DateIndex(this.issues, issue -> issue.getFields().getCreated()));
+		this.dateIndexes.put("updated", new DateIndex(this.issues, issue -> issue.getFields().getUpdated()));
+	}
+
+	private void index(String field, int position, Stream<String> values) {
+		Map<String, BitSet> index = this.indexes.computeIfAbsent(field, f -> new HashMap<>());
+		List<String> names = values.filter(name -> name != null).toList();
+		// Issues without a value are indexed under "", for "is empty"
+		for (String name : (names.isEmpty() ? List.of("") : names)) {
+			index.computeIfAbsent(name.toLowerCase(Locale.ROOT), n -> new BitSet()).set(position);
+		}
+	}
+
+
+	/**
+	 * Return the project that the store has all issues of, or {@code null}.
+	 */
+	public String getProjectKey() {
+		return this.projectKey;
+	}
+
+	public int size() {
+		return this.issues.size();
+	}
+
+	/**
+	 * Whether the given query can be answered from this store, i.e. it is in the
+	 * supported subset of JQL, and it is limited to the project that the store
+	 * has all issues of, through a {@code project}, {@code key} or {@code id} clause.
+	 * Queries with date clauses are only covered if the Jira time zone is known.
+	 */
+	public boolean covers(String jql) {
+		JqlQuery query = JqlQuery.parseIfSupported(jql);
+		return (query != null && this.projectKey != null && isLimitedToProject(query.getRoot()) &&
+				(this.timeZone != null || !hasDateClause(query.getRoot())));
+	}
+
+	private boolean hasDateClause(JqlQuery.Node node) {
+		if (node instanceof JqlQuery.And and) {
+			return and.nodes().stream().anyMatch(this::hasDateClause);
+		}
+		if (node instanceof JqlQuery.Or or) {
+			return or.nodes().stream().anyMatch(this::hasDateClause);
+		}
+		if (node instanceof JqlQuery.Not not) {
+			return hasDateClause(not.node());
+		}
+		JqlQuery.Clause clause = (JqlQuery.Clause) node;
+		return (clause.field().equals("created") || clause.field().equals("updated"));
+	}
+
+	private boolean isLimitedToProject(JqlQuery.Node node) {
+		if (node instanceof JqlQuery.And and) {
+			return and.nodes().stream().anyMatch(this::isLimitedToProject);
+		}
+		if (node instanceof JqlQuery.Or or) {
+			return or.nodes().stream().allMatch(this::isLimitedToProject);
+		}
+		if (node instanceof JqlQuery.Clause clause && (clause.operator().equals("=") || clause.operator().equals("in"))) {
+			return switch (clause.field()) {
+				case "project" -> clause.values().stream().allMatch(this.projectKey::equalsIgnoreCase);
+				case "key", "id" -> clause.values().stream()
+						.allMatch(value -> value.toUpperCase(Locale.ROOT).startsWith(this.projectKey.toUpperCase(Locale.ROOT) + "-"));
+				default -> false;
+			};
+		}
+		return false;
+	}
+
+	/**
+	 * Return the issues that match the given query, in the order of its
+	 * {@code ORDER BY} clause, or else in the order of the store.
+	 * @throws IllegalArgumentException if the query is not in the supported subset
+	 */
+	public List<JiraIssue> find(String jql) {
+		JqlQuery query = JqlQuery.parse(jql);
+		BitSet matches = evaluate(query.getRoot());
+		List<JiraIssue> result = new ArrayList<>(matches.cardinality());
+		matches.stream().forEach(position -> result.add(this.issues.get(position)));
+		Comparator<JiraIssue> comparator = null;
+		for (JqlQuery.Order order : query.getOrderBy()) {
+			Comparator<JiraIssue> next = switch (order.field()) {
+				case "key" -> Comparator.comparing(JiraIssue::getKey, KEY_COMPARATOR);
+				case "created" -> Comparator.comparing(issue -> issue.getFields().getCreated(),
+						Comparator.nullsFirst(Comparator.naturalOrder()));
+				default -> Comparator.comparing(issue -> issue.getFields().getUpdated(),
+						Comparator.nullsFirst(Comparator.naturalOrder()));
+			};
+			next = (order.ascending() ? next : next.reversed());
+			comparator = (comparator != null ? comparator.thenComparing(next) : next);
+		}
+		if (comparator != null) {
+			result.sort(comparator);
+		}
+		return result;
+	}
+
+	private BitSet evaluate(JqlQuery.Node node) {
+		if (node instanceof JqlQuery.And and) {
+			BitSet result = all();
+			and.nodes().forEach(child -> result.and(evaluate(child)));
+			return result;
+		}
+		if (node instanceof JqlQuery.Or or) {
+			BitSet result = new BitSet();
+			or.nodes().forEach(child -> result.or(evaluate(child)));
+			return result;
+		}
+		if (node instanceof JqlQuery.Not not) {
+			BitSet result = all();
+			result.andNot(evaluate(not.node()));
+			return result;
+		}
+		return evaluate((JqlQuery.Clause) node);
+	}
+
+	private BitSet evaluate(JqlQuery.Clause clause) {
+		String operator = clause.operator();
+		switch (operator) {
+			case "=", "in" -> {
+				return matching(clause);
+			}
+			case "!=", "not in" -> {
+				// Issues without a value don't match either, as in Jira
+				BitSet result = all();
+				result.andNot(matching(clause));
+				result.andNot(empty(clause.field()));
+				return result;
+			}
+			case "is empty" -> {
+				return empty(clause.field());
+			}
+			case "is not empty" -> {
+				BitSet result = all();
+				result.andNot(empty(clause.field()));
+				return result;
+			}
+			default -> {
+				return range(clause);
+			}
+		}
+	}
+
+	private BitSet matching(JqlQuery.Clause clause) {
+		BitSet result = new BitSet();
+		for (String value : clause.values()) {
+			switch (clause.field()) {
+				case "key" -> setIfPresent(result, this.positionsByKey.get(value.toUpperCase(Locale.ROOT)));
+				case "id" -> setIfPresent(result, this.positionsById.containsKey(value) ?
+						this.positionsById.get(value) : this.positionsByKey.get(value.toUpperCase(Locale.ROOT)));
+				case "created", "updated" -> {
+					// Dates have minute precision in JQL
+					long start = parseDate(value);
+					result.or(this.dateIndexes.get(clause.field()).range(start, start + 60_000));
+				}
+				default -> {
+					BitSet positions = this.indexes.get(clause.field()).get(value.toLowerCase(Locale.ROOT));
+					if (positions != null) {
+						result.or(positions);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private BitSet empty(String field) {
+		return switch (field) {
+			case "key", "id", "project" -> new BitSet();
+			case "created", "updated" -> this.dateIndexes.get(field).empty();
+			default -> (BitSet) this.indexes.get(field).getOrDefault("", new BitSet()).clone();
+		};
+	}
+
+	private BitSet range(JqlQuery.Clause clause) {
+		String operator = clause.operator();
+		String value = clause.value();
+		if (clause.field().equals("key") || clause.field().equals("id")) {
+			BitSet result = new BitSet();
+			for (int i = 0; i < this.issues.size(); i++) {
+				int comparison = KEY_COMPARATOR.compare(this.issues.get(i).getKey(), value.toUpperCase(Locale.ROOT));
+				if (compares(operator, comparison)) {
+					result.set(i);
+				}
+			}
+			return result;
+		}
+		DateIndex index = this.dateIndexes.get(clause.field());
+		if (index == null) {
+			throw new IllegalArgumentException("Unsupported operator " + operator + " for " + clause.field());
+		}
+		long time = parseDate(value);
+		return switch (operator) {
+			case "<" -> index.range(Long.MIN_VALUE, time);
+			case "<=" -> index.range(Long.MIN_VALUE, time + 60_000);
+			case ">" -> index.range(time + 60_000, Long.MAX_VALUE);
+			default -> index.range(time, Long.MAX_VALUE);
+		};
+	}
+
+	private BitSet all() {
+		BitSet result = new BitSet(this.issues.size());
+		result.set(0, this.issues.size());
+		return result;
+	}
+
+	private static void setIfPresent(BitSet bitSet, Integer position) {
+		if (position != null) {
+			bitSet.set(position);
+		}
+	}
+
+	private static boolean compares(String operator, int comparison) {
+		return switch (operator) {
+			case "<" -> comparison < 0;
+			case "<=" -> comparison <= 0;
+			case ">" -> comparison > 0;
+			default -> comparison >= 0;
+		};
+	}
+
+	private long parseDate(String value) {
+		try {
+			return this.dateParser.parseMillis(value);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException("Unsupported date " + value, ex);
+		}
+	}
+
+	private static long keyNumber(String key) {
+		try {
+			return Long.parseLong(key.substring(key.lastIndexOf('-') + 1));
+		}
+		catch (NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Return the project key of a query for all issues of one project, i.e.
+	 * {@code project = KEY} with an optional {@code ORDER BY}, or else {@code null}.
+	 */
+	public static String getProjectKey(String jql) {
+		JqlQuery query = JqlQuery.parseIfSupported(jql);
+		if (query != null && query.getRoot() instanceof JqlQuery.Clause clause &&
+				clause.field().equals("project") && clause.operator().equals("=")) {
+			return clause.value().toUpperCase(Locale.ROOT);
+		}
+		return null;
+	}
+
+
+	/**
+	 * Issue positions sorted by a date field, for range queries by binary search.
+	 */
+	private static class DateIndex {
+
+		private final long[] times;
+
+		private final int[] positions;
+
+		private final BitSet empty = new BitSet();
+
+		DateIndex(List<JiraIssue> issues, Function<JiraIssue, DateTime> dateFunction) {
+			List<Integer> dated = new ArrayList<>(issues.size());
+			for (int i = 0; i < issues.size(); i++) {
+				if (dateFunction.apply(issues.get(i)) != null) {
+					dated.add(i);
+				}
+				else {
+					this.empty.set(i);
+				}
+			}
+			ToLongFunction<Integer> time = position -> dateFunction.apply(issues.get(position)).getMillis();
+			dated.sort(Comparator.comparingLong(time));
+			this.positions = dated.stream().mapToInt(Integer::intValue).toArray();
+			this.times = dated.stream().mapToLong(time).toArray();
+		}
+
+		/**
+		 * Return the positions with a time in {@code [from, to)}.
+		 */
+		BitSet range(long from, long to) {
+			BitSet result = new BitSet();
+			for (int i = firstAtOrAfter(from); i < this.times.length && this.times[i] < to; i++) {
+				result.set(this.positions[i]);
+			}
+			return result;
+		}
+
+		BitSet empty() {
+			return (BitSet) this.empty.clone();
+		}
+
+		private int firstAtOrAfter(long time) {
+			int index = Arrays.binarySearch(this.times, time);
+			if (index < 0) {
+				return -index - 1;
+			}
+			while (index > 0 && this.times[index - 1] == time) {
+				index--;
+			}
+			return index;
+		}
+	}
+
+}
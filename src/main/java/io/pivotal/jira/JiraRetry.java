@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Retry of Jira requests that failed for transient reasons, i.e. 429 and 5xx
+ * responses, timeouts, and connection or decoding errors, with exponential
+ * backoff and full jitter. A {@code Retry-After} header takes precedence over
+ * the computed backoff. Other errors, such as 400 or 404, are not retried.
+ */
+abstract class JiraRetry {
+
+	private static final Logger logger = LogManager.getLogger(JiraRetry.class);
+
+	/** Upper bound for a Retry-After delay. */
+	private static final Duration MAX_RETRY_AFTER = Duration.ofMinutes(10);
+
+
+	/**
+	 * Create a {@link Retry} with up to {@code maxRetries} retries in a row, with
+	 * a random delay of up to {@code minBackoff} doubled per retry, capped at {@code maxBackoff}.
+	 */
+	static Retry backoff(int maxRetries, Duration minBackoff, Duration maxBackoff) {
+		return Retry.from(signals -> signals.concatMap(signal -> {
+			Throwable failure = signal.failure();
+			long retry = signal.totalRetriesInARow();
+			if (!isTransient(failure) || retry >= maxRetries) {
+				return Mono.error(failure);
+			}
+			Duration delay = retryAfter(failure);
+			if (delay == null) {
+				long backoff = Math.min(maxBackoff.toMillis(), minBackoff.toMillis() << Math.min(retry, 20));
+				delay = Duration.ofMillis(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+			}
+			logger.debug("Retry {} of {} in {} ms after: {}", retry + 1, maxRetries, delay.toMillis(), failure.toString());
+			return Mono.delay(delay).thenReturn(retry);
+		}));
+	}
+
+	/**
+	 * Whether the given failure is transient and worth retrying.
+	 */
+	static boolean isTransient(Throwable ex) {
+		if (ex instanceof WebClientResponseException responseEx) {
+			int status = responseEx.getRawStatusCode();
+			return (status == 429 || status >= 500);
+		}
+		return (ex instanceof TimeoutException || ex instanceof WebClientRequestException ||
+				ex instanceof IOException || ex instanceof DecodingException);
+	}
+
+	/**
+	 * Return the delay requested through a {@code Retry-After} header, in seconds
+	 * or as an HTTP date, or {@code null} if there is none.
+	 */
+	static Duration retryAfter(Throwable ex) {
+		if (!(ex instanceof WebClientResponseException responseEx)) {
+			return null;
+		}
+		HttpHeaders headers = responseEx.getHeaders();
+		String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+		if (value == null) {
+			return null;
+		}
+		Duration delay;
+		try {
+			delay = Duration.ofSeconds(Long.parseLong(value.trim()));
+		}
+		catch (NumberFormatException notSeconds) {
+			try {
+				delay = Duration.ofMillis(headers.getFirstDate(HttpHeaders.RETRY_AFTER) - System.currentTimeMillis());
+			}
+			catch (IllegalArgumentException notDate) {
+				return null;
+			}
+		}
+		return (delay.isNegative() ? Duration.ZERO : (delay.compareTo(MAX_RETRY_AFTER) > 0 ? MAX_RETRY_AFTER : delay));
+	}
+
+}
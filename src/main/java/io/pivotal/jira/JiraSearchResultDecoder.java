@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Incremental decoder for a single Jira {@code /search} response. Bytes are fed
+ * to a non-blocking Jackson parser as they arrive, and each entry of the
+ * {@code "issues"} array is bound to a {@link JiraIssue} as soon as its closing
+ * brace is seen, so the page is never held in memory as a whole.
+ *
+ * <p>The top-level {@code startAt}, {@code maxResults} and {@code total} values
+ * are collected into {@link #getSearchResult()}, without the issues.
+ */
+class JiraSearchResultDecoder {
+
+	private final ObjectMapper objectMapper;
+
+	private final JsonParser parser;
+
+	private final JiraSearchResult searchResult = new JiraSearchResult();
+
+	private int depth;
+
+	private String fieldName;
+
+	private boolean inIssues;
+
+	private TokenBuffer issueTokens;
+
+	private int issueDepth;
+
+	private int issueCount;
+
+	private long decodeNanos;
+
+
+	JiraSearchResultDecoder(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+		try {
+			this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to create non-blocking parser", ex);
+		}
+	}
+
+
+	/**
+	 * Feed the next chunk of the response, and return the issues completed by it.
+	 * The buffer is released.
+	 */
+	List<JiraIssue> decode(DataBuffer buffer) {
+		long start = System.nanoTime();
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		DataBufferUtils.release(buffer);
+		try {
+			((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+			return parseAvailableTokens();
+		}
+		catch (IOException ex) {
+			throw new DecodingException("Failed to decode Jira search result: " + ex.getMessage(), ex);
+		}
+		finally {
+			decodeNanos += System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Signal the end of the response, and return any remaining issues.
+	 */
+	List<JiraIssue> complete() {
+		long start = System.nanoTime();
+		try {
+			((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+			return parseAvailableTokens();
+		}
+		catch (IOException ex) {
+			throw new DecodingException("Failed to decode Jira search result: " + ex.getMessage(), ex);
+		}
+		finally {
+			decodeNanos += System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Return the paging information of the response, without the issues.
+	 */
+	JiraSearchResult getSearchResult() {
+		return searchResult;
+	}
+
+	/**
+	 * Return the number of issues decoded so far.
+	 */
+	int getIssueCount() {
+		return issueCount;
+	}
+
+	/**
+	 * Return the time spent parsing and binding so far, excluding time waiting for input.
+	 */
+	Duration getDecodeTime() {
+		return Duration.ofNanos(decodeNanos);
+	}
+
+	private List<JiraIssue> parseAvailableTokens() throws IOException {
+		List<JiraIssue> issues = null;
+		JsonToken token;
+		while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+			if (issueTokens != null) {
+				issueTokens.copyCurrentEvent(parser);
+				if (token.isStructStart()) {
+					issueDepth++;
+				}
+				else if (token.isStructEnd() && --issueDepth == 0) {
+					issues = (issues != null ? issues : new ArrayList<>());
+					issues.add(objectMapper.readValue(issueTokens.asParser(objectMapper), JiraIssue.class));
+					issueTokens = null;
+					issueCount++;
+				}
+			}
+			else if (inIssues) {
+				if (token == JsonToken.START_OBJECT) {
+					issueTokens = new TokenBuffer(parser);
+					issueTokens.copyCurrentEvent(parser);
+					issueDepth = 1;
+				}
+				else if (token == JsonToken.END_ARRAY) {
+					inIssues = false;
+					depth--;
+				}
+			}
+			else if (token.isStructStart()) {
+				depth++;
+				inIssues = (depth == 2 && token == JsonToken.START_ARRAY && "issues".equals(fieldName));
+			}
+			else if (token.isStructEnd()) {
+				depth--;
+			}
+			else if (depth == 1 && token == JsonToken.FIELD_NAME) {
+				fieldName = parser.getCurrentName();
+			}
+			else if (depth == 1 && token.isNumeric() && fieldName != null) {
+				switch (fieldName) {
+					case "startAt" -> searchResult.setStartAt(parser.getLongValue());
+					case "maxResults" -> searchResult.setMaxResults(parser.getLongValue());
+					case "total" -> searchResult.setTotal(parser.getLongValue());
+					default -> {}
+				}
+			}
+		}
+		return (issues != null ? issues : Collections.emptyList());
+	}
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Splits the issues of a query into key ranges, or shards, small enough to be
+ * migrated in one run each, in place of hand-crafted {@code created} ranges.
+ *
+ * <p>The keys of all issues are loaded with {@link JiraFieldProfile#KEYS}, and
+ * the comments of an evenly spread sample of issues are counted, each sample
+ * standing for the issues up to the next one. Shards are then balanced so that
+ * each stays within {@link JiraConfig#getShardMaxIssues()}, which bounds the
+ * GitHub import requests of a run, and {@link JiraConfig#getShardMaxComments()},
+ * which bounds the size of the import payloads.
+ *
+ * <p>Shards are meant to be run one after the other, each with its JQL as
+ * {@code jira.migrate-jql}. The first and the last shards are open-ended, so
+ * that issues created after planning are not left out.
+ */
+public class JiraShardPlanner {
+
+	private static final Logger logger = LogManager.getLogger(JiraShardPlanner.class);
+
+	private static final Comparator<String> KEY_ORDER =
+			Comparator.comparing((String key) -> key.substring(0, key.lastIndexOf('-')))
+					.thenComparingInt(JiraShardPlanner::keyNumber);
+
+
+	private final JiraClient client;
+
+	private final JiraConfig config;
+
+
+	public JiraShardPlanner(JiraClient client, JiraConfig config) {
+		this.client = client;
+		this.config = config;
+	}
+
+
+	/**
+	 * Plan shards for the issues of the given query.
+	 */
+	public List<Shard> plan(String jql) {
+		List<String> keys = client.findIssues(jql, JiraFieldProfile.KEYS).stream()
+				.map(JiraIssue::getKey)
+				.sorted(KEY_ORDER)
+				.toList();
+		List<String> sample = sample(keys, config.getShardSampleSize());
+		logger.info("Counting comments of {} of {} issues", sample.size(), keys.size());
+		int[] comments = estimateComments(keys, client.findCommentCounts(sample));
+		return plan(jql, keys, comments, config.getShardMaxIssues(), config.getShardMaxComments());
+	}
+
+	/**
+	 * Select up to {@code sampleSize} keys, evenly spread and starting with the first.
+	 */
+	static List<String> sample(List<String> keys, int sampleSize) {
+		int step = Math.max(1, (keys.size() + sampleSize - 1) / sampleSize);
+		List<String> sample = new ArrayList<>();
+		for (int i = 0; i < keys.size(); i += step) {
+			sample.add(keys.get(i));
+		}
+		return sample;
+	}
+
+	/**
+	 * Estimate the comments of each issue from the count of the closest sampled issue before it.
+	 */
+	static int[] estimateComments(List<String> keys, Map<String, Integer> sampleCounts) {
+		int[] comments = new int[keys.size()];
+		int estimate = 0;
+		for (int i = 0; i < keys.size(); i++) {
+			Integer count = sampleCounts.get(keys.get(i));
+			estimate = (count != null ? count : estimate);
+			comments[i] = estimate;
+		}
+		return comments;
+	}
+
+	/**
+	 * Plan shards for the given issue keys, in key order, and their estimated comments.
+	 * The fewest shards within the limits are used, balanced by issue and comment counts.
+	 */
+	static List<Shard> plan(String jql, List<String> keys, int[] comments, int maxIssues, int maxComments) {
+		if (keys.isEmpty()) {
+			return List.of();
+		}
+		List<int[]> greedyRanges = greedyRanges(comments, maxIssues, maxComments);
+		long totalComments = 0;
+		for (int count : comments) {
+			totalComments += count;
+		}
+		int minShards = (int) Math.max((keys.size() + maxIssues - 1) / maxIssues,
+				(totalComments + maxComments - 1) / maxComments);
+		for (int shardCount = Math.max(1, minShards); shardCount <= greedyRanges.size(); shardCount++) {
+			List<int[]> ranges = balancedRanges(comments, shardCount, maxIssues, maxComments);
+			if (fits(ranges, comments, maxIssues, maxComments)) {
+				return toShards(jql, keys, comments, ranges);
+			}
+		}
+		return toShards(jql, keys, comments, greedyRanges);
+	}
+
+	private static List<int[]> greedyRanges(int[] comments, int maxIssues, int maxComments) {
+		List<int[]> ranges = new ArrayList<>();
+		int start = 0;
+		long shardComments = 0;
+		for (int i = 0; i < comments.length; i++) {
+			int issues = i - start;
+			if (issues > 0 && (issues >= maxIssues || shardComments + comments[i] > maxComments)) {
+				ranges.add(new int[] {start, i});
+				start = i;
+				shardComments = 0;
+			}
+			shardComments += comments[i];
+		}
+		ranges.add(new int[] {start, comments.length});
+		return ranges;
+	}
+
+	private static List<int[]> balancedRanges(int[] comments, int shardCount, int maxIssues, int maxComments) {
+		double[] costs = new double[comments.length];
+		double totalCost = 0;
+		for (int i = 0; i < comments.length; i++) {
+			costs[i] = 1.0 / maxIssues + (double) comments[i] / maxComments;
+			totalCost += costs[i];
+		}
+		double target = totalCost / shardCount;
+		List<int[]> ranges = new ArrayList<>();
+		int start = 0;
+		double cost = 0;
+		for (int i = 0; i < comments.length && ranges.size() < shardCount - 1; i++) {
+			if (i > start && cost + costs[i] / 2 > target * (ranges.size() + 1)) {
+				ranges.add(new int[] {start, i});
+				start = i;
+			}
+			cost += costs[i];
+		}
+		ranges.add(new int[] {start, comments.length});
+		return ranges;
+	}
+
+	private static boolean fits(List<int[]> ranges, int[] comments, int maxIssues, int maxComments) {
+		for (int[] range : ranges) {
+			int issues = range[1] - range[0];
+			if (issues > maxIssues || (issues > 1 && sum(comments, range) > maxComments)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static List<Shard> toShards(String jql, List<String> keys, int[] comments, List<int[]> ranges) {
+		List<Shard> shards = new ArrayList<>(ranges.size());
+		for (int i = 0; i < ranges.size(); i++) {
+			int[] range = ranges.get(i);
+			String firstKey = keys.get(range[0]);
+			String lastKey = keys.get(range[1] - 1);
+			String condition;
+			if (ranges.size() == 1) {
+				condition = null;
+			}
+			else if (i == 0) {
+				condition = "key <= " + lastKey;
+			}
+			else if (i == ranges.size() - 1) {
+				condition = "key >= " + firstKey;
+			}
+			else {
+				condition = "key >= " + firstKey + " AND key <= " + lastKey;
+			}
+			Shard shard = new Shard();
+			shard.setFirstKey(firstKey);
+			shard.setLastKey(lastKey);
+			shard.setIssueCount(range[1] - range[0]);
+			shard.setEstimatedCommentCount(sum(comments, range));
+			shard.setJql(condition != null ? Jql.and(jql, condition) : jql);
+			shards.add(shard);
+		}
+		return shards;
+	}
+
+	private static long sum(int[] comments, int[] range) {
+		long sum = 0;
+		for (int i = range[0]; i < range[1]; i++) {
+			sum += comments[i];
+		}
+		return sum;
+	}
+
+	private static int keyNumber(String key) {
+		try {
+			return Integer.parseInt(key.substring(key.lastIndexOf('-') + 1));
+		}
+		catch (NumberFormatException ex) {
+			return 0;
+		}
+	}
+
+
+	@Data
+	public static class Shard {
+
+		String firstKey;
+
+		String lastKey;
+
+		int issueCount;
+
+		long estimatedCommentCount;
+
+		String jql;
+
+	}
+
+}
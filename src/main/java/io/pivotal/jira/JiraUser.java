@@ -15,6 +15,7 @@
  */
 package io.pivotal.jira;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import lombok.Data;
@@ -30,6 +31,7 @@ public class JiraUser {
 	String key;
 	String self;
 
+	@JsonIgnore
 	public String getBrowserUrl() {
 		return UriComponentsBuilder.fromHttpUrl(self).replacePath("jira/secure/ViewProfile.jspa").replaceQuery("").queryParam("name",key).toUriString();
 	}
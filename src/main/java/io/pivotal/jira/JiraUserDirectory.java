@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Resolves users mentioned as {@code [~name]} in descriptions and comments,
+ * who are not necessarily a reporter or comment author, so that mentions show
+ * display names. Users are looked up in Jira once, all at once before the
+ * conversion, and kept in an optional JSON file shared across runs and projects,
+ * including users that don't exist.
+ */
+public class JiraUserDirectory {
+
+	private static final Logger logger = LogManager.getLogger(JiraUserDirectory.class);
+
+	private static final Pattern USER_MENTION_PATTERN = Pattern.compile("\\[~([^]]+)]");
+
+	private static final TypeReference<Map<String, JiraUser>> USERS_TYPE = new TypeReference<>() {};
+
+
+	private final JiraClient client;
+
+	private final File file;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	/** Users by name, with only the key set for users that don't exist. */
+	private final Map<String, JiraUser> users = new LinkedHashMap<>();
+
+
+	/**
+	 * Create a directory that looks up users through the given client.
+	 * @param client the client to look up users with
+	 * @param file the file to keep users in, or {@code null}
+	 */
+	public JiraUserDirectory(JiraClient client, File file) {
+		this.client = client;
+		this.file = file;
+		if (file != null && file.exists()) {
+			try {
+				this.users.putAll(this.objectMapper.readValue(file, USERS_TYPE));
+				logger.info("Loaded {} users from {}", this.users.size(), file);
+			}
+			catch (IOException ex) {
+				logger.warn("Failed to read users from {}, ignoring it: {}", file, ex.getMessage());
+			}
+		}
+	}
+
+
+	/**
+	 * Return the users with the given names that exist, by name, looking up the
+	 * ones not yet known in Jira.
+	 */
+	public Map<String, JiraUser> resolve(Collection<String> userNames) {
+		List<String> unknown = userNames.stream().filter(name -> !this.users.containsKey(name)).toList();
+		if (!unknown.isEmpty()) {
+			logger.info("Looking up {} of {} mentioned users", unknown.size(), userNames.size());
+			Map<String, Optional<JiraUser>> found = this.client.findUsers(unknown);
+			found.forEach((name, user) -> this.users.put(name, user.orElseGet(() -> {
+				JiraUser missing = new JiraUser();
+				missing.setKey(name);
+				return missing;
+			})));
+			if (!found.isEmpty()) {
+				save();
+			}
+		}
+		Map<String, JiraUser> result = new LinkedHashMap<>();
+		for (String name : userNames) {
+			JiraUser user = this.users.get(name);
+			if (user != null && user.getDisplayName() != null) {
+				result.put(name, user);
+			}
+		}
+		return result;
+	}
+
+	private void save() {
+		if (this.file == null) {
+			return;
+		}
+		try {
+			if (this.file.getParentFile() != null) {
+				Files.createDirectories(this.file.getParentFile().toPath());
+			}
+			File tempFile = new File(this.file.getPath() + ".tmp");
+			this.objectMapper.writeValue(tempFile, this.users);
+			Files.move(tempFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to write users to {}: {}", this.file, ex.getMessage());
+		}
+	}
+
+
+	/**
+	 * Return the names of all users mentioned in the descriptions and comments
+	 * of the given issues.
+	 */
+	public static Set<String> collectMentionedUsers(Collection<JiraIssue> issues) {
+		Set<String> names = new TreeSet<>();
+		for (JiraIssue issue : issues) {
+			JiraIssue.Fields fields = issue.getFields();
+			addMentionedUsers(fields.getDescription(), names);
+			if (fields.getComment() != null) {
+				fields.getComment().getComments().forEach(comment -> addMentionedUsers(comment.getBody(), names));
+			}
+		}
+		return names;
+	}
+
+	private static void addMentionedUsers(String text, Set<String> names) {
+		if (text == null) {
+			return;
+		}
+		Matcher matcher = USER_MENTION_PATTERN.matcher(text);
+		while (matcher.find()) {
+			names.add(matcher.group(1));
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.util.Collection;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * Helpers to derive JQL queries from the configured migration query.
+ */
+public abstract class Jql {
+
+	private static final Pattern ORDER_BY_PATTERN = Pattern.compile("\\s+ORDER\\s+BY\\s+", Pattern.CASE_INSENSITIVE);
+
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormat.forPattern("yyyy/MM/dd HH:mm");
+
+
+	/**
+	 * Combine the given query with an additional condition, keeping any
+	 * {@code ORDER BY} clause at the end.
+	 */
+	public static String and(String jql, String condition) {
+		Matcher matcher = ORDER_BY_PATTERN.matcher(jql);
+		if (matcher.find()) {
+			return "(" + jql.substring(0, matcher.start()) + ") AND " + condition + jql.substring(matcher.start());
+		}
+		return "(" + jql + ") AND " + condition;
+	}
+
+	/**
+	 * Condition for issues updated at or after the given time. Note that JQL
+	 * dates have minute precision and are interpreted in the time zone of the
+	 * Jira user, so callers should allow for a margin.
+	 */
+	public static String updatedSince(DateTime dateTime) {
+		return "updated >= \"" + DATE_FORMATTER.print(dateTime) + "\"";
+	}
+
+	/**
+	 * Query for the issues with the given keys.
+	 */
+	public static String keyIn(Collection<String> keys) {
+		return "key in (" + String.join(",", keys) + ")";
+	}
+
+}
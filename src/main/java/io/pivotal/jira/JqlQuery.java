@@ -0,0 +1,332 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed form of the subset of JQL used for migration queries, to evaluate
+ * them against a {@link JiraIssueStore}: clauses on {@code project},
+ * {@code key}, {@code id}, {@code type}, {@code status}, {@code component},
+ * {@code fixVersion}, {@code resolution}, {@code level}, {@code priority},
+ * {@code created} and {@code updated}, with the operators {@code =, !=, <, <=,
+ * >, >=, in, not in, is [not] empty}, combined with {@code AND}, {@code OR},
+ * {@code NOT} and parentheses, followed by an optional {@code ORDER BY}.
+ *
+ * <p>Anything else, e.g. functions or relative dates, fails to parse with an
+ * {@link IllegalArgumentException}, so that the query can be sent to Jira instead.
+ */
+final class JqlQuery {
+
+	private static final Map<String, String> FIELD_ALIASES = Map.of(
+			"issuekey", "key", "issuetype", "type", "components", "component",
+			"createddate", "created", "updateddate", "updated", "security", "level");
+
+	private static final List<String> FIELDS = List.of("project", "key", "id", "type", "status", "component",
+			"fixversion", "resolution", "level", "priority", "created", "updated");
+
+	private static final List<String> OPERATORS = List.of("=", "!=", "<", "<=", ">", ">=");
+
+	private static final List<String> RANGE_FIELDS = List.of("key", "id", "created", "updated");
+
+	private static final Pattern DATE_PATTERN = Pattern.compile("\\d{4}[-/]\\d{2}[-/]\\d{2}( \\d{1,2}:\\d{2})?");
+
+
+	private final Node root;
+
+	private final List<Order> orderBy;
+
+
+	private JqlQuery(Node root, List<Order> orderBy) {
+		this.root = root;
+		this.orderBy = orderBy;
+	}
+
+
+	Node getRoot() {
+		return this.root;
+	}
+
+	List<Order> getOrderBy() {
+		return this.orderBy;
+	}
+
+
+	/**
+	 * Parse the given query.
+	 * @throws IllegalArgumentException if the query is not in the supported subset
+	 */
+	static JqlQuery parse(String jql) {
+		return new Parser(tokenize(jql)).parseQuery();
+	}
+
+	/**
+	 * Parse the given query, or return {@code null} if it is not in the supported subset.
+	 */
+	static JqlQuery parseIfSupported(String jql) {
+		try {
+			return parse(jql);
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	private static List<String> tokenize(String jql) {
+		List<String> tokens = new ArrayList<>();
+		int i = 0;
+		while (i < jql.length()) {
+			char c = jql.charAt(i);
+			if (Character.isWhitespace(c)) {
+				i++;
+			}
+			else if (c == '(' || c == ')' || c == ',') {
+				tokens.add(String.valueOf(c));
+				i++;
+			}
+			else if (c == '"' || c == '\'') {
+				int end = jql.indexOf(c, i + 1);
+				if (end == -1) {
+					throw new IllegalArgumentException("Unterminated string in " + jql);
+				}
+				// Keep the quote to tell values from keywords
+				tokens.add("\"" + jql.substring(i + 1, end));
+				i = end + 1;
+			}
+			else if (c == '=' || c == '!' || c == '<' || c == '>' || c == '~') {
+				int end = (i + 1 < jql.length() && jql.charAt(i + 1) == '=' ? i + 2 : i + 1);
+				tokens.add(jql.substring(i, end));
+				i = end;
+			}
+			else {
+				int end = i;
+				while (end < jql.length() && !Character.isWhitespace(jql.charAt(end)) &&
+						"()=,!<>~\"'".indexOf(jql.charAt(end)) == -1) {
+					end++;
+				}
+				tokens.add(jql.substring(i, end));
+				i = end;
+			}
+		}
+		return tokens;
+	}
+
+
+	interface Node {
+	}
+
+	record And(List<Node> nodes) implements Node {
+	}
+
+	record Or(List<Node> nodes) implements Node {
+	}
+
+	record Not(Node node) implements Node {
+	}
+
+	/**
+	 * A single condition, with the field in lower case, and an operator of
+	 * {@code =, !=, <, <=, >, >=, in, not in, is empty, is not empty}.
+	 */
+	record Clause(String field, String operator, List<String> values) implements Node {
+
+		String value() {
+			return this.values.get(0);
+		}
+	}
+
+	record Order(String field, boolean ascending) {
+	}
+
+
+	private static class Parser {
+
+		private final List<String> tokens;
+
+		private int position;
+
+		Parser(List<String> tokens) {
+			this.tokens = tokens;
+		}
+
+		JqlQuery parseQuery() {
+			Node root = parseOr();
+			List<Order> orderBy = new ArrayList<>();
+			if (acceptKeyword("order")) {
+				expectKeyword("by");
+				do {
+					String field = parseField();
+					if (!field.equals("key") && !field.equals("created") && !field.equals("updated")) {
+						throw new IllegalArgumentException("Unsupported ORDER BY field " + field);
+					}
+					boolean ascending = !acceptKeyword("desc");
+					if (ascending) {
+						acceptKeyword("asc");
+					}
+					orderBy.add(new Order(field, ascending));
+				}
+				while (accept(","));
+			}
+			if (this.position < this.tokens.size()) {
+				throw new IllegalArgumentException("Unexpected " + this.tokens.get(this.position));
+			}
+			return new JqlQuery(root, orderBy);
+		}
+
+		private Node parseOr() {
+			List<Node> nodes = new ArrayList<>();
+			nodes.add(parseAnd());
+			while (acceptKeyword("or")) {
+				nodes.add(parseAnd());
+			}
+			return (nodes.size() == 1 ? nodes.get(0) : new Or(nodes));
+		}
+
+		private Node parseAnd() {
+			List<Node> nodes = new ArrayList<>();
+			nodes.add(parseNot());
+			while (acceptKeyword("and")) {
+				nodes.add(parseNot());
+			}
+			return (nodes.size() == 1 ? nodes.get(0) : new And(nodes));
+		}
+
+		private Node parseNot() {
+			if (acceptKeyword("not")) {
+				return new Not(parseNot());
+			}
+			if (accept("(")) {
+				Node node = parseOr();
+				expect(")");
+				return node;
+			}
+			return parseClause();
+		}
+
+		private Node parseClause() {
+			String field = parseField();
+			if (acceptKeyword("is")) {
+				String operator = (acceptKeyword("not") ? "is not empty" : "is empty");
+				if (!acceptKeyword("empty")) {
+					expectKeyword("null");
+				}
+				return new Clause(field, operator, List.of());
+			}
+			if (acceptKeyword("in")) {
+				return clause(field, "in", parseValues());
+			}
+			if (acceptKeyword("not")) {
+				expectKeyword("in");
+				return clause(field, "not in", parseValues());
+			}
+			String operator = next();
+			if (!OPERATORS.contains(operator)) {
+				throw new IllegalArgumentException("Unsupported operator " + operator);
+			}
+			if (operator.startsWith("<") || operator.startsWith(">")) {
+				if (!RANGE_FIELDS.contains(field)) {
+					throw new IllegalArgumentException("Unsupported operator " + operator + " for " + field);
+				}
+			}
+			return clause(field, operator, List.of(parseValue()));
+		}
+
+		private Clause clause(String field, String operator, List<String> values) {
+			if (field.equals("created") || field.equals("updated")) {
+				for (String value : values) {
+					if (!DATE_PATTERN.matcher(value).matches()) {
+						throw new IllegalArgumentException("Unsupported date " + value);
+					}
+				}
+			}
+			return new Clause(field, operator, values);
+		}
+
+		private String parseField() {
+			String field = next().toLowerCase(Locale.ROOT);
+			field = FIELD_ALIASES.getOrDefault(field, field);
+			if (!FIELDS.contains(field)) {
+				throw new IllegalArgumentException("Unsupported field " + field);
+			}
+			return field;
+		}
+
+		private List<String> parseValues() {
+			expect("(");
+			List<String> values = new ArrayList<>();
+			do {
+				values.add(parseValue());
+			}
+			while (accept(","));
+			expect(")");
+			return values;
+		}
+
+		private String parseValue() {
+			String token = next();
+			if (token.startsWith("\"")) {
+				return token.substring(1);
+			}
+			if (token.equals("(") || token.equals(")") || token.equals(",")) {
+				throw new IllegalArgumentException("Unexpected " + token);
+			}
+			if (this.position < this.tokens.size() && this.tokens.get(this.position).equals("(")) {
+				throw new IllegalArgumentException("Unsupported function " + token);
+			}
+			return token;
+		}
+
+		private String next() {
+			if (this.position >= this.tokens.size()) {
+				throw new IllegalArgumentException("Unexpected end of query");
+			}
+			return this.tokens.get(this.position++);
+		}
+
+		private boolean accept(String token) {
+			if (this.position < this.tokens.size() && this.tokens.get(this.position).equals(token)) {
+				this.position++;
+				return true;
+			}
+			return false;
+		}
+
+		private boolean acceptKeyword(String keyword) {
+			if (this.position < this.tokens.size() && this.tokens.get(this.position).equalsIgnoreCase(keyword)) {
+				this.position++;
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(String token) {
+			if (!accept(token)) {
+				throw new IllegalArgumentException("Expected " + token);
+			}
+		}
+
+		private void expectKeyword(String keyword) {
+			if (!acceptKeyword(keyword)) {
+				throw new IllegalArgumentException("Expected " + keyword);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Holder for a JSON value that is kept as buffered tokens when deserialized,
+ * and only bound to its target type on first access. Used for fields that most
+ * runs never read, such as attachments and watchers, to save the time and
+ * memory to bind them for every issue. If the value was not accessed, it is
+ * serialized back from the buffered tokens.
+ *
+ * <p>The target type is taken from the type parameter of the declared field,
+ * and binding uses the same {@link ObjectCodec} that read the enclosing value,
+ * kept with the tokens. If the value is read without a codec, for example from
+ * a parser created directly by a {@code JsonFactory}, it is bound right away
+ * instead, so that it can always be accessed later.
+ */
+@JsonSerialize(using = LazyJsonValue.Serializer.class)
+@JsonDeserialize(using = LazyJsonValue.Deserializer.class)
+final class LazyJsonValue<T> {
+
+	private TokenBuffer tokens;
+
+	private JavaType type;
+
+	private ObjectCodec codec;
+
+	private T value;
+
+
+	private LazyJsonValue(TokenBuffer tokens, JavaType type, ObjectCodec codec) {
+		this.tokens = tokens;
+		this.type = type;
+		this.codec = codec;
+	}
+
+	private LazyJsonValue(T value) {
+		this.value = value;
+	}
+
+
+	/**
+	 * Return the value, binding it from the buffered tokens on first access.
+	 */
+	synchronized T get() {
+		if (tokens != null) {
+			try (JsonParser parser = tokens.asParser(codec)) {
+				parser.nextToken();
+				value = codec.readValue(parser, type);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to bind " + type, ex);
+			}
+			tokens = null;
+			type = null;
+			codec = null;
+		}
+		return value;
+	}
+
+	private synchronized void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+		if (tokens != null) {
+			tokens.serialize(generator);
+		}
+		else {
+			provider.defaultSerializeValue(value, generator);
+		}
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return (this == other || (other instanceof LazyJsonValue<?> that && Objects.equals(get(), that.get())));
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(get());
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(get());
+	}
+
+
+	/**
+	 * Wrap an already bound value, or return {@code null} for a {@code null} value.
+	 */
+	static <T> LazyJsonValue<T> of(T value) {
+		return (value != null ? new LazyJsonValue<>(value) : null);
+	}
+
+	/**
+	 * Return the bound value of the given holder, or {@code null}.
+	 */
+	static <T> T get(LazyJsonValue<T> holder) {
+		return (holder != null ? holder.get() : null);
+	}
+
+
+	static class Serializer extends JsonSerializer<LazyJsonValue<?>> {
+
+		@Override
+		public void serialize(LazyJsonValue<?> lazyValue, JsonGenerator generator, SerializerProvider provider)
+				throws IOException {
+
+			lazyValue.serialize(generator, provider);
+		}
+	}
+
+
+	static class Deserializer extends JsonDeserializer<LazyJsonValue<?>> implements ContextualDeserializer {
+
+		private final JavaType type;
+
+		Deserializer() {
+			this(null);
+		}
+
+		private Deserializer(JavaType type) {
+			this.type = type;
+		}
+
+		@Override
+		public JsonDeserializer<?> createContextual(DeserializationContext context, BeanProperty property) {
+			JavaType holderType = (property != null ? property.getType() : context.getContextualType());
+			return new Deserializer(holderType.containedTypeOrUnknown(0));
+		}
+
+		@Override
+		public LazyJsonValue<?> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+			TokenBuffer tokens = new TokenBuffer(parser, context);
+			tokens.copyCurrentStructure(parser);
+			ObjectCodec codec = parser.getCodec();
+			if (codec == null) {
+				try (JsonParser tokenParser = tokens.asParser()) {
+					tokenParser.nextToken();
+					return new LazyJsonValue<>(context.readValue(tokenParser, type));
+				}
+			}
+			return new LazyJsonValue<>(tokens, type, codec);
+		}
+	}
+
+}
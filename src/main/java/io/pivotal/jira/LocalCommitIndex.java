@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Index of commits that reference Jira issues, built from the history of a local
+ * clone of the project repository, as an alternative to one dev-status request
+ * per issue. The history is read once with {@code git log}, and the commit
+ * messages are scanned for issue keys in parallel.
+ */
+public class LocalCommitIndex {
+
+	private static final Logger logger = LogManager.getLogger(LocalCommitIndex.class);
+
+	private static final String COMMIT_SEPARATOR = "\u0000";
+
+	private final Map<String, List<String>> commitUrls;
+
+
+	private LocalCommitIndex(Map<String, List<String>> commitUrls) {
+		this.commitUrls = commitUrls;
+	}
+
+
+	/**
+	 * Return the URLs of commits that reference the given issue, oldest first.
+	 */
+	public List<String> getCommitUrls(String issueKey) {
+		return commitUrls.getOrDefault(issueKey, Collections.emptyList());
+	}
+
+	/**
+	 * Return the number of issues referenced by at least one commit.
+	 */
+	public int size() {
+		return commitUrls.size();
+	}
+
+
+	/**
+	 * Build the index from all branches of a local clone.
+	 * @param repository the directory of the clone
+	 * @param projectId the Jira project whose issue keys to look for
+	 * @param commitUrlPrefix the URL to append a commit hash to, e.g.
+	 * {@code https://github.com/apache/maven/commit/}
+	 */
+	public static LocalCommitIndex build(File repository, String projectId, String commitUrlPrefix) throws IOException {
+		long start = System.currentTimeMillis();
+		Process process = new ProcessBuilder("git", "log", "--all", "--reverse", "--format=%H%n%B" + "%x00")
+				.directory(repository)
+				.redirectError(ProcessBuilder.Redirect.INHERIT)
+				.start();
+		String log;
+		try (InputStream inputStream = process.getInputStream()) {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			inputStream.transferTo(outputStream);
+			log = outputStream.toString(StandardCharsets.UTF_8);
+		}
+		try {
+			int exitCode = process.waitFor();
+			if (exitCode != 0) {
+				throw new IOException("git log failed in " + repository + " with exit code " + exitCode);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while reading history of " + repository, ex);
+		}
+		LocalCommitIndex index = parse(log, projectId, commitUrlPrefix);
+		logger.info("Indexed commits for {} issues from {} in {} ms",
+				index.size(), repository, System.currentTimeMillis() - start);
+		return index;
+	}
+
+	/**
+	 * Build the index from {@code git log} output with the format {@code %H%n%B%x00}.
+	 */
+	static LocalCommitIndex parse(String log, String projectId, String commitUrlPrefix) {
+		Pattern keyPattern = Pattern.compile("\\b" + Pattern.quote(projectId) + "-\\d+\\b");
+		List<String> commits = Arrays.asList(log.split(COMMIT_SEPARATOR));
+		Map<String, List<String>> commitUrls = commits.parallelStream()
+				.map(String::strip)
+				.filter(commit -> !commit.isEmpty())
+				.flatMap(commit -> {
+					int index = commit.indexOf('\n');
+					String hash = (index != -1 ? commit.substring(0, index) : commit);
+					Set<String> keys = new LinkedHashSet<>();
+					Matcher matcher = keyPattern.matcher(commit);
+					while (matcher.find()) {
+						keys.add(matcher.group());
+					}
+					return keys.stream().map(key -> new String[] { key, commitUrlPrefix + hash });
+				})
+				.collect(Collectors.groupingBy(pair -> pair[0],
+						Collectors.mapping(pair -> pair[1], Collectors.toList())));
+		return new LocalCommitIndex(commitUrls);
+	}
+
+}
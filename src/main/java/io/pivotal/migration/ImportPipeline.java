@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.migration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Overlaps the submission of imports with checking their results. Imports are
+ * submitted one at a time, in order, by the caller, while a separate thread
+ * checks and records their results in the same order, with at most
+ * {@code window} imports submitted but not yet checked.
+ */
+class ImportPipeline {
+
+	private static final Logger logger = LogManager.getLogger(ImportPipeline.class);
+
+
+	private final int windowSize;
+
+	private final Semaphore window;
+
+	private final Predicate<MigrationClient.ImportedIssue> resultCheck;
+
+	private final ExecutorService checker = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "github-import-check");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+
+	/**
+	 * Create a pipeline.
+	 * @param window the max number of imports submitted but not yet checked
+	 * @param resultCheck checks and records the result of an import, returning
+	 * whether it succeeded
+	 */
+	ImportPipeline(int window, Predicate<MigrationClient.ImportedIssue> resultCheck) {
+		this.windowSize = Math.max(1, window);
+		this.window = new Semaphore(this.windowSize);
+		this.resultCheck = resultCheck;
+	}
+
+
+	/**
+	 * Wait until the window has room for another import, submit it, and queue
+	 * the check of its result.
+	 * @param importer submits the import and returns it, to be checked
+	 */
+	void submit(Supplier<MigrationClient.ImportedIssue> importer) {
+		try {
+			this.window.acquire();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for import results", ex);
+		}
+		MigrationClient.ImportedIssue importedIssue;
+		try {
+			importedIssue = importer.get();
+		}
+		catch (RuntimeException ex) {
+			this.window.release();
+			throw ex;
+		}
+		this.checker.execute(() -> {
+			try {
+				if (!this.resultCheck.test(importedIssue)) {
+					logger.error("Detected import failure for {}", (importedIssue.getJiraIssue() != null ?
+							importedIssue.getJiraIssue().key() : importedIssue.getMilestone().get("title")));
+				}
+			}
+			catch (RuntimeException ex) {
+				logger.error("Failed to check import result", ex);
+			}
+			finally {
+				this.window.release();
+			}
+		});
+	}
+
+	/**
+	 * Wait for the results of all submitted imports to be checked.
+	 */
+	void awaitCompletion() {
+		this.checker.shutdown();
+		try {
+			while (!this.checker.awaitTermination(1, TimeUnit.MINUTES)) {
+				logger.info("Waiting for {} import results", this.windowSize - this.window.availablePermits());
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for import results", ex);
+		}
+	}
+
+}
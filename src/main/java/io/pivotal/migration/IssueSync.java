@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.migration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import io.pivotal.github.GithubComment;
+import io.pivotal.github.GithubIssue;
+import io.pivotal.jira.JiraIssue;
+import io.pivotal.post.JiraLinkConverter;
+import org.joda.time.DateTime;
+
+/**
+ * Compares issues rendered from Jira with the issues on GitHub, to find what
+ * {@link MigrationClient#syncIssues} needs to patch or add.
+ *
+ * <p>Text is compared after converting links to Jira issues into references to
+ * GitHub issues, as {@code JiraLinkConversionApp} does after a migration, and
+ * with whitespace compressed. Converted descriptions and comments therefore
+ * match what was rendered from unchanged Jira content, and are neither patched
+ * back nor added again. Text sent to GitHub is converted in the same way.
+ */
+class IssueSync {
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+
+	private final JiraLinkConverter linkConverter;
+
+
+	IssueSync(JiraLinkConverter linkConverter) {
+		this.linkConverter = linkConverter;
+	}
+
+
+	/**
+	 * Return the fields to patch to bring the GitHub issue in line with the
+	 * rendered issue. Labels and the assignee are only ever added.
+	 * @param jiraIssue the Jira issue the issue was rendered from
+	 * @param rendered the issue rendered as for an import
+	 * @param existing the issue as returned from GitHub
+	 */
+	@SuppressWarnings("unchecked")
+	Map<String, Object> findIssueChanges(JiraIssue jiraIssue, GithubIssue rendered, Map<String, Object> existing) {
+		Map<String, Object> changes = new LinkedHashMap<>();
+		if (!rendered.getTitle().equals(existing.get("title"))) {
+			changes.put("title", rendered.getTitle());
+		}
+		if (!normalize(rendered.getBody()).equals(normalize((String) existing.get("body")))) {
+			changes.put("body", this.linkConverter.convert(rendered.getBody()));
+		}
+		if (rendered.isClosed() != "closed".equals(existing.get("state"))) {
+			changes.put("state", rendered.isClosed() ? "closed" : "open");
+			if (rendered.isClosed()) {
+				String resolution = jiraIssue.getFields().getResolution().getName();
+				changes.put("state_reason", MigrationClient.RESOLUTION_TYPES_FOR_NOT_PLANNED_MAPPING.contains(resolution) ?
+						"not_planned" : "completed");
+			}
+		}
+		Map<String, Object> milestone = (Map<String, Object>) existing.get("milestone");
+		if (rendered.getMilestone() != null &&
+				(milestone == null || !rendered.getMilestone().equals(milestone.get("number")))) {
+			changes.put("milestone", rendered.getMilestone());
+		}
+		Set<String> labels = ((List<Map<String, Object>>) existing.get("labels")).stream()
+				.map(label -> (String) label.get("name"))
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		if (!labels.containsAll(rendered.getLabels())) {
+			labels.addAll(rendered.getLabels());
+			changes.put("labels", labels);
+		}
+		Map<String, Object> assignee = (Map<String, Object>) existing.get("assignee");
+		if (rendered.getAssignee() != null &&
+				(assignee == null || !rendered.getAssignee().equals(assignee.get("login")))) {
+			changes.put("assignee", rendered.getAssignee());
+		}
+		return changes;
+	}
+
+	/**
+	 * Return the rendered comments created at or after the given time that are
+	 * not on GitHub yet, with their body converted, ready to add.
+	 * @param comments the comments rendered as for an import
+	 * @param since the time of the last sync, including any margin
+	 * @param existingBodies supplies the bodies of the comments on GitHub, only
+	 * invoked if there are comments created since the given time
+	 */
+	List<GithubComment> findNewComments(List<GithubComment> comments, DateTime since,
+			Supplier<List<String>> existingBodies) {
+
+		List<GithubComment> candidates = comments.stream()
+				.filter(comment -> !comment.getCreatedAt().isBefore(since))
+				.toList();
+		if (candidates.isEmpty()) {
+			return candidates;
+		}
+		Set<String> existing = existingBodies.get().stream().map(this::normalize).collect(Collectors.toSet());
+		List<GithubComment> result = new ArrayList<>();
+		for (GithubComment comment : candidates) {
+			if (existing.add(normalize(comment.getBody()))) {
+				// The created time can only be set through the import API
+				GithubComment toAdd = new GithubComment();
+				toAdd.setBody(this.linkConverter.convert(comment.getBody()));
+				result.add(toAdd);
+			}
+		}
+		return result;
+	}
+
+	private String normalize(String text) {
+		return (text != null ? WHITESPACE.matcher(this.linkConverter.convert(text)).replaceAll(" ").strip() : "");
+	}
+
+}
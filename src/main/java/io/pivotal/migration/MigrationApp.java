@@ -19,22 +19,32 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import io.pivotal.jira.CompactJiraIssue;
 import io.pivotal.jira.JiraClient;
 import io.pivotal.jira.JiraConfig;
+import io.pivotal.jira.JiraFieldProfile;
 import io.pivotal.jira.JiraIssue;
+import io.pivotal.jira.JiraIssueGraph;
 import io.pivotal.jira.JiraProject;
+import io.pivotal.jira.JiraUserDirectory;
 import io.pivotal.post.JiraGithubMappingApp;
+import io.pivotal.post.JiraLinkConverter;
 import io.pivotal.post.LastJiraCommentApp;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.ISODateTimeFormat;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -52,6 +62,10 @@ public class MigrationApp implements CommandLineRunner {
 
 	private static final Logger logger = LogManager.getLogger(MigrationApp.class);
 
+	private static final File LAST_SYNC_FILE = new File("github-issue-last-sync.txt");
+
+	private static final int SYNC_MARGIN_HOURS = 24;
+
 
 	@Autowired
 	JiraClient jira;
@@ -90,6 +104,11 @@ public class MigrationApp implements CommandLineRunner {
 				}
 				System.exit(0);
 			}
+			if ("sync".equals(strings[0])) {
+				// optional 2nd parameter: time to sync from, instead of github-issue-last-sync.txt
+				sync(strings.length > 1 ? strings[1] : null);
+				System.exit(0);
+			}
 		}
 
 		File mappingsFile = new File("github-issue-mappings.properties");
@@ -100,7 +119,8 @@ public class MigrationApp implements CommandLineRunner {
 			 FileWriter pendingWriter = new FileWriter(pendingFile, true);
 			 FileWriter failuresWriter = new FileWriter(failuresFile, true)) {
 
-			String startTime = DateTimeFormat.forStyle("ML").print(DateTime.now());
+			DateTime now = DateTime.now();
+			String startTime = DateTimeFormat.forStyle("ML").print(now);
 			failuresWriter.write("==================================\n" + startTime + "\n");
 			failuresWriter.flush();
 
@@ -128,6 +148,11 @@ public class MigrationApp implements CommandLineRunner {
 
 			github.createRepository();
 
+			if (issueMappings.isEmpty() && issuesPendingMapping.isEmpty() && !LAST_SYNC_FILE.exists()) {
+				// Changes in Jira from here on can be propagated later with "sync"
+				Files.writeString(LAST_SYNC_FILE.toPath(), ISODateTimeFormat.dateTime().print(now) + "\n");
+			}
+
 			if (issueMappings.isEmpty() && issuesPendingMapping.isEmpty()) {
 				logger.info("Searching for JIRA-Project");
 				JiraProject project = jira.findProject(jiraConfig.getProjectId());
@@ -146,22 +171,44 @@ public class MigrationApp implements CommandLineRunner {
 
 			logger.info(String.format("Starting to find Issues, Votes and Commits from JIRA, using the following JQL-String [%s]", migrateJql));
 
-			List<JiraIssue> issues = jira.findIssuesVotesAndCommits(migrateJql, context::filterRemaingIssuesToImport);
+			// Remote links and commits are only loaded for issues that will be imported,
+			// and on restart, also all other fields
+			boolean restart = !issueMappings.isEmpty() || !issuesPendingMapping.isEmpty();
+			List<JiraIssue> issues = (restart && jiraConfig.isLightRestart() ?
+					jira.findRemainingIssuesVotesAndCommits(migrateJql,
+							jiraIssues -> github.filterIssuesToImport(jiraIssues, context)) :
+					jira.findIssuesVotesAndCommits(migrateJql,
+							jiraIssues -> github.filterIssuesToImport(jiraIssues, context)));
 
 
-			List<String> restrictedIssueKeys = issues.stream()
-					.filter(issue -> !issue.getFields().isPublic())
-					.map(JiraIssue::getKey).collect(Collectors.toList());
+			JiraIssueGraph graph = new JiraIssueGraph(issues);
 
 			List<JiraIssue> publicIssues = issues.stream()
 					.filter(issue -> issue.getFields().isPublic())
 					.collect(Collectors.toList());
 
-			logger.info(String.format("Found [%d] restricted Issues and [%d] public issues", restrictedIssueKeys.size(), publicIssues.size()));
-
+			logger.info(String.format("Found [%d] restricted Issues and [%d] public issues", graph.getRestrictedCount(), publicIssues.size()));
 
-			github.createIssues(publicIssues, restrictedIssueKeys, context);
-			List<JiraIssue> pendingJiraIssues = jira.findIssues(migrateJql).stream().filter(context.filterPendingIssuesForPRLinking()).toList();
+			// Pending issues from the previous run are not enriched with the issues to import
+			List<JiraIssue> previouslyPendingIssues = findPendingIssues(issues, context);
+			if (!previouslyPendingIssues.isEmpty()) {
+				jira.enrichIssues(previouslyPendingIssues);
+			}
+			Map<String, CompactJiraIssue> compactIssues = new HashMap<>();
+			publicIssues.forEach(issue -> compactIssues.put(issue.getKey(), CompactJiraIssue.from(issue)));
+			previouslyPendingIssues.forEach(issue -> compactIssues.put(issue.getKey(), CompactJiraIssue.from(issue)));
+
+			// From here on, only the public issues to import are held, until each is converted
+			issues = null;
+			previouslyPendingIssues = null;
+			jira.releaseIssueStore();
+
+			configureMentionedUsers(github.filterIssuesToImport(publicIssues, context));
+			github.createIssues(publicIssues, graph, context);
+			List<CompactJiraIssue> pendingJiraIssues = context.getPendingIssueKeys().stream()
+					.map(compactIssues::get)
+					.filter(Objects::nonNull)
+					.toList();
 			if(!pendingJiraIssues.isEmpty()) {
 				logger.info("Found pending issues...");
 				github.updateLinkingPRAndClosedReason(pendingJiraIssues, context);
@@ -173,6 +220,90 @@ public class MigrationApp implements CommandLineRunner {
 		System.exit(0);
 	}
 
+	/**
+	 * Resolve all users mentioned in the given issues up front, so that mentions
+	 * of users other than reporters and comment authors show display names. Users
+	 * are kept in {@code users.json} under {@link JiraConfig#getCacheDir()}, if set.
+	 */
+	private void configureMentionedUsers(List<JiraIssue> issues) {
+		File file = (jiraConfig.getCacheDir() != null ? new File(jiraConfig.getCacheDir(), "users.json") : null);
+		JiraUserDirectory directory = new JiraUserDirectory(jira, file);
+		github.getMarkup().configureUserLookup(directory.resolve(JiraUserDirectory.collectMentionedUsers(issues)));
+	}
+
+	/**
+	 * Select the pending issues from the issues loaded at the start of the run,
+	 * and load any others, e.g. outside the current query, by key.
+	 */
+	private List<JiraIssue> findPendingIssues(List<JiraIssue> issues, MigrationContext context) {
+		List<JiraIssue> pendingIssues = issues.stream().filter(context.filterPendingIssuesForPRLinking())
+				.collect(Collectors.toList());
+		Set<String> loadedKeys = pendingIssues.stream().map(JiraIssue::getKey).collect(Collectors.toSet());
+		List<String> otherKeys = context.getPendingIssueKeys().stream()
+				.filter(key -> !loadedKeys.contains(key))
+				.toList();
+		if (!otherKeys.isEmpty()) {
+			logger.info("Loading {} pending issues not found with the migrate query", otherKeys.size());
+			pendingIssues.addAll(jira.findIssuesByKeys(otherKeys));
+		}
+		return pendingIssues;
+	}
+
+	/**
+	 * Propagate changes made in Jira since the last sync, or since the given time,
+	 * to the GitHub issues in github-issue-mappings.properties.
+	 */
+	private void sync(String since) throws IOException {
+		if (since == null) {
+			Assert.isTrue(LAST_SYNC_FILE.exists(), "Please specify the time to sync from, " +
+					"e.g. \"sync 2023-05-01T00:00:00Z\", or create " + LAST_SYNC_FILE);
+			since = Files.readString(LAST_SYNC_FILE.toPath()).trim();
+		}
+		DateTime lastSync = ISODateTimeFormat.dateTimeParser().parseDateTime(since);
+		DateTime syncTime = DateTime.now();
+
+		File mappingsFile = new File("github-issue-mappings.properties");
+		File failuresFile = new File("github-migration-failures.txt");
+
+		try (FileWriter failuresWriter = new FileWriter(failuresFile, true)) {
+			failuresWriter.write("==================================\n" +
+					"Sync " + DateTimeFormat.forStyle("ML").print(syncTime) + "\n");
+			failuresWriter.flush();
+
+			MigrationContext context = new MigrationContext(Writer.nullWriter(), failuresWriter, Writer.nullWriter());
+			context.setPreviouslyImportedIssueMappings(loadIssueMappings(mappingsFile));
+
+			String migrateJql = jiraConfig.getMigrateJql();
+			logger.info("Finding issues updated since {}", lastSync);
+
+			// Sub-tasks, links and "Backport" sub-tasks of updated issues may not have been updated,
+			// so the graph is built from all issues, without text content and comments
+			JiraIssueGraph graph = new JiraIssueGraph(jira.findIssues(migrateJql, JiraFieldProfile.METADATA));
+
+			// JQL dates are in the time zone of the Jira user: allow a margin, unchanged issues are not patched
+			List<JiraIssue> issues = jira.findIssuesUpdatedSince(
+					migrateJql, lastSync.minusHours(SYNC_MARGIN_HOURS), graph.getBackportSubtasks());
+
+			List<JiraIssue> publicIssues = issues.stream()
+					.filter(issue -> issue.getFields().isPublic())
+					.collect(Collectors.toList());
+
+			// Converted like the issues and comments on GitHub after the migration
+			JiraLinkConverter linkConverter = new JiraLinkConverter(jiraConfig.getBaseUrl(), jiraConfig.getProjectId(),
+					context.getIssueMappings(), Writer.nullWriter());
+
+			configureMentionedUsers(publicIssues);
+			int failed = github.syncIssues(publicIssues, graph, lastSync, linkConverter, context);
+			if (failed == 0) {
+				Files.writeString(LAST_SYNC_FILE.toPath(), ISODateTimeFormat.dateTime().print(syncTime) + "\n");
+				logger.info("Sync completed, the next sync will be from {}", syncTime);
+			}
+			else {
+				logger.error("{} issues failed to sync, keeping the last sync time {}", failed, since);
+			}
+		}
+	}
+
 	private static Map<String, Integer> loadIssueMappings(File mappingsFile) throws IOException {
 		Properties props = new Properties();
 		props.load(new FileInputStream(mappingsFile));
@@ -35,15 +35,17 @@ import io.pivotal.github.GithubConfig;
 import io.pivotal.github.GithubIssue;
 import io.pivotal.github.GithubPullRequest;
 import io.pivotal.github.ImportGithubIssue;
+import io.pivotal.jira.CompactJiraIssue;
 import io.pivotal.jira.IssueLink;
 import io.pivotal.jira.JiraAttachment;
 import io.pivotal.jira.JiraComment;
-import io.pivotal.jira.JiraFixVersion;
 import io.pivotal.jira.JiraIssue;
 import io.pivotal.jira.JiraIssue.Fields;
+import io.pivotal.jira.JiraIssueGraph;
 import io.pivotal.jira.JiraUser;
 import io.pivotal.jira.JiraVersion;
 import io.pivotal.jira.RemoteLink;
+import io.pivotal.post.JiraLinkConverter;
 import io.pivotal.util.MarkupEngine;
 import io.pivotal.util.MarkupManager;
 import io.pivotal.util.ProgressTracker;
@@ -88,7 +90,7 @@ public class  MigrationClient {
 	private static final Logger logger = LogManager.getLogger(MigrationClient.class);
 
 	private static final List<String> SUPPRESSED_LINK_TYPES = Arrays.asList("relates to", "is related to");
-	private static final List<String> RESOLUTION_TYPES_FOR_NOT_PLANNED_MAPPING = Arrays.asList("Won't Fix",  "Won't Do", "Abandoned", "Not A Bug", "Not A Problem", "Cannot Reproduce");
+	static final List<String> RESOLUTION_TYPES_FOR_NOT_PLANNED_MAPPING = Arrays.asList("Won't Fix",  "Won't Do", "Abandoned", "Not A Bug", "Not A Problem", "Cannot Reproduce");
 
 	private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE =
 			new ParameterizedTypeReference<Map<String, Object>>() {};
@@ -115,9 +117,9 @@ public class  MigrationClient {
 	// From https://developer.github.com/v3/guides/best-practices-for-integrators/#dealing-with-rate-limits
 	// If you're making a large number of POST, PATCH, PUT, or DELETE requests
 	// for a single user or client ID, wait at least one second between each request.
-	private final RateLimitHelper rateLimitHelper = new RateLimitHelper();
+	private final RateLimitHelper rateLimitHelper;
 
-	private final GitHubRestTemplate rest = new GitHubRestTemplate(rateLimitHelper, logger);
+	private final GitHubRestTemplate rest;
 
 	private final DateTime migrationDateTime = DateTime.now();
 
@@ -125,8 +127,6 @@ public class  MigrationClient {
 
 	private final BodyBuilder importRequestBuilder;
 
-	private int importBatchSize = 100;
-
 	private final JiraIssueFilter jiraIssueFilter;
 
 
@@ -140,6 +140,9 @@ public class  MigrationClient {
 		this.labelHandler = labelHandler;
 		this.issueProcessor = issueProcessor;
         this.jiraIssueFilter = jiraIssueFilter;
+		this.rateLimitHelper = new RateLimitHelper(config.getWriteRate(), config.getWriteBurst(),
+				config.getWritesPerMinute(), config.getWritesPerHour());
+		this.rest = new GitHubRestTemplate(this.rateLimitHelper, logger);
         this.importRequestBuilder =
 				getRepositoryRequestBuilder(HttpMethod.POST, "/import/issues")
 						.accept(new MediaType("application", "vnd.github.golden-comet-preview+json"));
@@ -287,7 +290,14 @@ public class  MigrationClient {
 
 	// https://gist.github.com/jonmagic/5282384165e0f86ef105#start-an-issue-import
 
-	public void createIssues(List<JiraIssue> publicIssues, List<String> restrictedIssueKeys,
+	/**
+	 * Import the public issues that remain to be imported, and create backport
+	 * issue holders. Issues are converted one at a time as their import is
+	 * submitted, and only their {@link CompactJiraIssue} summary is kept after
+	 * that. The given list is cleared, so that the full issues can be garbage
+	 * collected as they are converted.
+	 */
+	public void createIssues(List<JiraIssue> publicIssues, JiraIssueGraph graph,
 			MigrationContext context) {
 
 		logger.info("Collecting list of users from all issues");
@@ -298,39 +308,29 @@ public class  MigrationClient {
 		Map<String, Map<String, Object>> milestones = retrieveMilestones();
 
 		logger.info("Collecting lists of backport issues by milestone");
-		MultiValueMap<Map<String, Object>, JiraIssue> backportMap = collectBackports(publicIssues, milestones);
-
-		logger.info("Preparing for import (wiki to markdown, select labels, format Jira details, etc)");
-		List<JiraIssue> importIssues = context.filterRemaingIssuesToImport(publicIssues).stream().filter(jiraIssue -> jiraIssueFilter.test(jiraIssue)).toList();
-		List<ImportGithubIssue> importData = importIssues.stream()
-				.map(jiraIssue -> {
-					logger.debug("Prepare import data for jiraIssue: {}", jiraIssue.getKey());
-					issueProcessor.beforeConversion(jiraIssue);
-					ImportGithubIssue issueToImport = new ImportGithubIssue();
-					issueToImport.setIssue(initGithubIssue(jiraIssue, milestones, restrictedIssueKeys));
-					issueToImport.setComments(initComments(jiraIssue));
-					issueToImport.setPullRequest(initPullRequest(jiraIssue));
-					issueProcessor.beforeImport(jiraIssue, issueToImport);
-					return issueToImport;
-				})
-				.collect(Collectors.toList());
-
-		logger.info("Starting to import {} issues (2 requests per issue/iteration)", importIssues.size());
-		ProgressTracker tracker1 = new ProgressTracker(importIssues.size(), 4, 200, logger.isDebugEnabled());
-		List<ImportedIssue> importedIssues = new ArrayList<>(importIssues.size());
-		for (int i = 0, issuesSize = importIssues.size(); i < issuesSize; i++) {
+		MultiValueMap<Map<String, Object>, CompactJiraIssue> backportMap = collectBackports(publicIssues, milestones);
+
+		List<JiraIssue> issuesToConvert = new ArrayList<>(filterIssuesToImport(publicIssues, context));
+		publicIssues.clear();
+
+		int issueCount = issuesToConvert.size();
+		logger.info("Starting to convert (wiki to markdown, select labels, format Jira details, etc) " +
+				"and import {} issues (up to {} imports in flight)", issueCount, config.getImportWindow());
+		ProgressTracker tracker1 = new ProgressTracker(issueCount, 4, 200, logger.isDebugEnabled());
+		List<ImportedIssue> importedIssues = new ArrayList<>(issueCount);
+		ImportPipeline pipeline = new ImportPipeline(config.getImportWindow(), issue -> checkImportResult(issue, context));
+		for (int i = 0; i < issueCount; i++) {
 			tracker1.updateForIteration();
-			ImportGithubIssueResponse importResponse = executeIssueImport(importData.get(i), context);
-			importedIssues.add(new ImportedIssue(importIssues.get(i), null, importResponse));
-			if (i % importBatchSize == 0 && i != 0) {
-				for (int j = i - importBatchSize; j <= i; j++) {
-					if (!checkImportResult(importedIssues.get(j), context)) {
-						logger.error("Detected import failure for " + importIssues.get(i).getKey());
-						break;
-					}
-				}
-			}
+			JiraIssue jiraIssue = issuesToConvert.set(i, null);
+			pipeline.submit(() -> {
+				ImportGithubIssue importData = initImportIssue(jiraIssue, milestones, graph);
+				ImportGithubIssueResponse importResponse = executeIssueImport(importData, context);
+				ImportedIssue importedIssue = new ImportedIssue(CompactJiraIssue.from(jiraIssue), null, importResponse);
+				importedIssues.add(importedIssue);
+				return importedIssue;
+			});
 		}
+		pipeline.awaitCompletion();
 		tracker1.stopProgress();
 
 		logger.info("Checking remaining import results");
@@ -357,14 +357,20 @@ public class  MigrationClient {
 		}
 		List<ImportedIssue> backportIssueHolders = new ArrayList<>(backportMap.size());
 		ProgressTracker tracker2 = new ProgressTracker(backportIssueHolders.size(), logger.isDebugEnabled());
+		ImportPipeline backportPipeline = new ImportPipeline(config.getImportWindow(), issue -> checkImportResult(issue, context));
 		backportMap.keySet().forEach(milestone -> {
 			tracker2.updateForIteration();
-			GithubIssue ghIssue = initMilestoneBackportIssue(milestone, backportMap.get(milestone), context);
-			ImportGithubIssue toImport = new ImportGithubIssue();
-			toImport.setIssue(ghIssue);
-			ImportGithubIssueResponse importResponse = executeIssueImport(toImport, context);
-			backportIssueHolders.add(new ImportedIssue(null, milestone, importResponse));
+			backportPipeline.submit(() -> {
+				GithubIssue ghIssue = initMilestoneBackportIssue(milestone, backportMap.get(milestone), context);
+				ImportGithubIssue toImport = new ImportGithubIssue();
+				toImport.setIssue(ghIssue);
+				ImportGithubIssueResponse importResponse = executeIssueImport(toImport, context);
+				ImportedIssue importedIssue = new ImportedIssue(null, milestone, importResponse);
+				backportIssueHolders.add(importedIssue);
+				return importedIssue;
+			});
 		});
+		backportPipeline.awaitCompletion();
 		tracker2.stopProgress();
 		logger.info("Checking import results for backport issue holders");
 		backportIssueHolders.forEach(issue -> checkImportResult(issue, context));
@@ -384,6 +390,112 @@ public class  MigrationClient {
 		}
 	}
 
+	/**
+	 * Select the issues that remain to be imported: public, not imported or
+	 * pending from a previous run, and accepted by the {@link JiraIssueFilter}.
+	 */
+	public List<JiraIssue> filterIssuesToImport(List<JiraIssue> issues, MigrationContext context) {
+		return context.filterRemaingIssuesToImport(issues).stream()
+				.filter(jiraIssue -> jiraIssue.getFields().isPublic())
+				.filter(jiraIssue -> jiraIssueFilter.test(jiraIssue))
+				.toList();
+	}
+
+	private ImportGithubIssue initImportIssue(JiraIssue jiraIssue, Map<String, Map<String, Object>> milestones,
+			JiraIssueGraph graph) {
+
+		logger.debug("Prepare import data for jiraIssue: {}", jiraIssue.getKey());
+		issueProcessor.beforeConversion(jiraIssue);
+		ImportGithubIssue issueToImport = new ImportGithubIssue();
+		issueToImport.setIssue(initGithubIssue(jiraIssue, milestones, graph));
+		issueToImport.setComments(initComments(jiraIssue));
+		issueToImport.setPullRequest(initPullRequest(jiraIssue));
+		issueProcessor.beforeImport(jiraIssue, issueToImport);
+		return issueToImport;
+	}
+
+	/**
+	 * Propagate Jira changes to issues that were already imported. Each issue is
+	 * rendered as for an import and compared with the GitHub issue, and only the
+	 * fields that differ are patched. Comments created in Jira since the given
+	 * time, and not found on GitHub, are added.
+	 * <p>Links to Jira issues are converted with the given converter before
+	 * comparing and sending text, see {@link IssueSync}, so that the changes of
+	 * {@code JiraLinkConversionApp} are kept. Labels and the assignee are only
+	 * ever added, since they may have been edited on GitHub after the migration.
+	 * Edits to older Jira comments are not propagated.
+	 * @return the number of issues that failed to sync
+	 */
+	public int syncIssues(List<JiraIssue> issues, JiraIssueGraph graph, DateTime since,
+			JiraLinkConverter linkConverter, MigrationContext context) {
+
+		logger.info("Collecting list of users from all issues");
+		this.markup.configureUserLookup(collectUsers(issues));
+
+		logger.info("Retrieving list of milestones");
+		Map<String, Map<String, Object>> milestones = retrieveMilestones();
+
+		List<JiraIssue> importedIssues = issues.stream()
+				.filter(issue -> context.getGitHubIssueId(issue.getKey()) != null)
+				.toList();
+		logger.info("Syncing {} updated issues ({} not imported, skipped)",
+				importedIssues.size(), issues.size() - importedIssues.size());
+
+		IssueSync issueSync = new IssueSync(linkConverter);
+		ProgressTracker tracker = new ProgressTracker(importedIssues.size(), logger.isDebugEnabled());
+		int patchedCount = 0;
+		int commentCount = 0;
+		int failedCount = 0;
+		for (JiraIssue jiraIssue : importedIssues) {
+			tracker.updateForIteration();
+			int issueNumber = context.getGitHubIssueId(jiraIssue.getKey());
+			try {
+				ImportGithubIssue rendered = initImportIssue(jiraIssue, milestones, graph);
+				RequestEntity<?> request = getRepositoryRequestBuilder(HttpMethod.GET, "/issues/" + issueNumber).build();
+				Map<String, Object> existing = getRest().exchange(request, MAP_TYPE).getBody();
+				Map<String, Object> changes = issueSync.findIssueChanges(jiraIssue, rendered.getIssue(), existing);
+				if (!changes.isEmpty()) {
+					logger.debug("Patching {} for {}: {}", issueNumber, jiraIssue.getKey(), changes.keySet());
+					getRest().exchange(getRepositoryRequestBuilder(HttpMethod.PATCH, "/issues/" + issueNumber).body(changes), String.class);
+					patchedCount++;
+				}
+				List<GithubComment> newComments = issueSync.findNewComments(
+						rendered.getComments(), since, () -> findCommentBodies(issueNumber));
+				for (GithubComment comment : newComments) {
+					getRest().exchange(getRepositoryRequestBuilder(HttpMethod.POST,
+							"/issues/" + issueNumber + "/comments").body(comment), String.class);
+					commentCount++;
+				}
+			}
+			catch (RestClientException ex) {
+				failedCount++;
+				String message = "Failed to sync " + jiraIssue.getKey() + " to #" + issueNumber;
+				logger.error(message, ex);
+				context.addFailureMessage(message + ": " + ex.getMessage());
+			}
+		}
+		tracker.stopProgress();
+		logger.info("Patched {} issues, added {} comments, {} failures", patchedCount, commentCount, failedCount);
+		return failedCount;
+	}
+
+	private List<String> findCommentBodies(int issueNumber) {
+		List<String> result = new ArrayList<>();
+		for (int page = 1; ; page++) {
+			String path = "/issues/" + issueNumber + "/comments?per_page=100&page=" + page;
+			RequestEntity<?> request = getRepositoryRequestBuilder(HttpMethod.GET, path).build();
+			List<Map<String, Object>> comments = getRest().exchange(request, LIST_OF_MAPS_TYPE).getBody();
+			if (CollectionUtils.isEmpty(comments)) {
+				break;
+			}
+			comments.forEach(comment -> result.add((String) comment.get("body")));
+			if (comments.size() < 100) {
+				break;
+			}
+		}
+		return result;
+	}
+
 	private void executeLinkPullRequestForImportedIssue(ImportedIssue importedIssue, MigrationContext context) {
 		int issueNumber = importedIssue.getIssueNumber();
 		String issueTitle = importedIssue.getImportResponse().getImportIssue().getIssue().getTitle();
@@ -425,9 +537,9 @@ public class  MigrationClient {
 		return Arrays.stream(response.getBody()).anyMatch(comment -> comment.getBody().contains("Resolve #"));
 	}
 
-	private void executeLinkPullRequestForPrevioulyPendingIssues(JiraIssue jiraIssue, Integer gitHubIssueId, MigrationContext context) {
-		List<GithubPullRequest> pullRequests = initPullRequest(jiraIssue);
-		executeLinkPullRequest(gitHubIssueId, jiraIssue.getFields().getSummary(), pullRequests, context);
+	private void executeLinkPullRequestForPrevioulyPendingIssues(CompactJiraIssue jiraIssue, Integer gitHubIssueId, MigrationContext context) {
+		List<GithubPullRequest> pullRequests = initPullRequest(jiraIssue.key(), jiraIssue.remoteLinkUrls());
+		executeLinkPullRequest(gitHubIssueId, jiraIssue.summary(), pullRequests, context);
 	}
 
 	private BodyBuilder pullRequestRequestBuilder(int number) {
@@ -437,16 +549,19 @@ public class  MigrationClient {
 	}
 
 	private List<GithubPullRequest> initPullRequest(JiraIssue jiraIssue) {
-		return jiraIssue.getFields().getRemoteLinks().stream()
-				.filter(remoteLink -> remoteLink.getUrl().contains("pull"))
-				.filter(remoteLink -> isNumeric(remoteLink.getUrl().split("/")))
-				.map(remoteLink -> {
-					logger.debug("For JiraIssue {}, PullRequest {} found", jiraIssue.getKey(), remoteLink.getTitle());
-					String[] splittedUrl = remoteLink.getUrl().split("/");
+		return initPullRequest(jiraIssue.getKey(),
+				jiraIssue.getFields().getRemoteLinks().stream().map(RemoteLink::getUrl).toList());
+	}
+
+	private List<GithubPullRequest> initPullRequest(String jiraKey, List<String> remoteLinkUrls) {
+		return remoteLinkUrls.stream()
+				.filter(url -> url.contains("pull"))
+				.filter(url -> isNumeric(url.split("/")))
+				.map(url -> {
+					logger.debug("For JiraIssue {}, PullRequest {} found", jiraKey, url);
+					String[] splittedUrl = url.split("/");
 					return new GithubPullRequest(Integer.parseInt(splittedUrl[splittedUrl.length-1]));
 				}).toList();
-
-
 	}
 
 	private static boolean isNumeric(String[] splittedURL) {
@@ -463,6 +578,10 @@ public class  MigrationClient {
 		for (JiraIssue issue : issues) {
 			Fields fields = issue.getFields();
 			userLookup.put(fields.getReporter().getKey(), fields.getReporter());
+			if (fields.getComment() == null) {
+				// Issue loaded without comments
+				continue;
+			}
 			for (JiraComment comment : fields.getComment().getComments()) {
 				userLookup.put(comment.getAuthor().getKey(), comment.getAuthor());
 			}
@@ -484,15 +603,19 @@ public class  MigrationClient {
 		return result;
 	}
 
-	private MultiValueMap<Map<String, Object>, JiraIssue> collectBackports(
+	private MultiValueMap<Map<String, Object>, CompactJiraIssue> collectBackports(
 			List<JiraIssue> issues, Map<String, Map<String, Object>> milestones) {
 
-		MultiValueMap<Map<String, Object>, JiraIssue> backportMap = new LinkedMultiValueMap<>();
+		MultiValueMap<Map<String, Object>, CompactJiraIssue> backportMap = new LinkedMultiValueMap<>();
 		for (JiraIssue jiraIssue : issues) {
-			for (JiraFixVersion version : jiraIssue.getBackportVersions()) {
-				Map<String, Object> milestone = milestones.get(version.getName());
+			if (jiraIssue.getBackportVersions().isEmpty()) {
+				continue;
+			}
+			CompactJiraIssue compactIssue = CompactJiraIssue.from(jiraIssue);
+			for (String version : compactIssue.backportVersions()) {
+				Map<String, Object> milestone = milestones.get(version);
 				if (milestone != null) {
-					backportMap.add(milestone, jiraIssue);
+					backportMap.add(milestone, compactIssue);
 				}
 			}
 		}
@@ -500,7 +623,7 @@ public class  MigrationClient {
 	}
 
 	private GithubIssue initGithubIssue(JiraIssue issue, Map<String, Map<String, Object>> milestones,
-			List<String> restrictedIssues) {
+			JiraIssueGraph graph) {
 
 		Fields fields = issue.getFields();
 		DateTime updated = fields.getUpdated();
@@ -525,7 +648,7 @@ public class  MigrationClient {
 			}
 			body += "\n" + engine.convert(description);
 		}
-		String jiraDetails = initJiraDetails(issue, engine, milestones, restrictedIssues);
+		String jiraDetails = initJiraDetails(issue, engine, milestones, graph);
 		body += "\n\n---\n" + (StringUtils.hasText(jiraDetails) ? jiraDetails : "No further details from " + jiraIssueLink);
 		ghIssue.setBody(body);
 
@@ -564,7 +687,7 @@ public class  MigrationClient {
 	}
 
 	private String initJiraDetails(JiraIssue issue, MarkupEngine engine,
-			Map<String, Map<String, Object>> milestones, List<String> restrictedIssues) {
+			Map<String, Map<String, Object>> milestones, JiraIssueGraph graph) {
 
 		Fields fields = issue.getFields();
 		String jiraDetails = "";
@@ -593,9 +716,7 @@ public class  MigrationClient {
 			String subTaskType = "Backport".equalsIgnoreCase(issueType) ? "backport sub-task" : "sub-task";
 			jiraDetails += "\nThis issue is a " + subTaskType + " of " + engine.link(key, parent.getBrowserUrl()) + "\n";
 		}
-		List<JiraIssue> subtasks = fields.getSubtasks().stream()
-				.filter(subtask -> !restrictedIssues.contains(subtask.getKey()))
-				.collect(Collectors.toList());
+		List<JiraIssue> subtasks = graph.getSubtasks(issue);
 		if (!subtasks.isEmpty()) {
 			jiraDetails += subtasks.stream()
 					.map(subtask -> {
@@ -607,15 +728,9 @@ public class  MigrationClient {
 					})
 					.collect(Collectors.joining("\n", "\n**Sub-tasks:**\n", "\n"));
 		}
-		List<IssueLink> issueLinks = fields.getIssuelinks().stream()
-				.filter(link -> link.getOutwardIssue() != null ?
-						!restrictedIssues.contains(link.getOutwardIssue().getKey()) :
-						!restrictedIssues.contains(link.getInwardIssue().getKey()))
-				.collect(Collectors.toList());
+		List<IssueLink> issueLinks = graph.getIssueLinks(issue);
 		if (!issueLinks.isEmpty()) {
 			jiraDetails += issueLinks.stream()
-					.filter(link -> !restrictedIssues.contains(link.getOutwardIssue() != null ?
-							link.getOutwardIssue().getKey() : link.getInwardIssue().getKey()))
 					.map(link -> {
 						// For now link to Jira. Later we'll make another pass to replace with GH issue numbers.
 						String key;
@@ -730,7 +845,7 @@ public class  MigrationClient {
 		if (importedIssue.getFailure() != null) {
 			return false;
 		}
-		JiraIssue jiraIssue = importedIssue.getJiraIssue();
+		CompactJiraIssue jiraIssue = importedIssue.getJiraIssue();
 		try {
 			if (importedIssue.getImportResponse() == null) {
 				importedIssue.setFailure("No body from import request");
@@ -746,7 +861,7 @@ public class  MigrationClient {
 			int maxRetries = 5;
 			while (true) {
 				if (retries == maxRetries) {
-					logger.error("Import for [" + jiraIssue.getKey() + "] failed after " + retries + " retries");
+					logger.error("Import for [" + jiraIssue.key() + "] failed after " + retries + " retries");
 					return false; // we see as error because we dont want to linking pr to pending issues
 				}
 				retries++;
@@ -771,19 +886,27 @@ public class  MigrationClient {
 				}
 				else if ("pending".equals(status)) {
 					logger.debug("{} import still pending. Waiting 1 second",
-							jiraIssue != null ? jiraIssue.getKey() : importUrl);
-					rateLimitHelper.obtainPermitToCall();
+							jiraIssue != null ? jiraIssue.key() : importUrl);
+					// Not through the rateLimitHelper, which paces the POSTs submitted meanwhile
+					try {
+						Thread.sleep(1000);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						importedIssue.setFailure("Interrupted while waiting for the import result");
+						return false;
+					}
 					continue;
 				}
 				if (url == null) {
 					importedIssue.setFailure("No URL for imported issue: " + body);
 					return false;
 				}
-				var jiraResolution = jiraIssue != null ? jiraIssue.getFields().getResolution() : null;
-				if (jiraResolution != null && RESOLUTION_TYPES_FOR_NOT_PLANNED_MAPPING.contains(jiraResolution.getName())) {
+				var jiraResolution = jiraIssue != null ? jiraIssue.resolution() : null;
+				if (jiraResolution != null && RESOLUTION_TYPES_FOR_NOT_PLANNED_MAPPING.contains(jiraResolution)) {
 					boolean stateWasUpdated = updateStateReasonToNotPlanned(jiraIssue, url);
 					if (!stateWasUpdated) {
-						logger.warn("Closed reason update failed for Jira issue " + jiraIssue.getKey());
+						logger.warn("Closed reason update failed for Jira issue " + jiraIssue.key());
 					}
 				}
 				UriComponents parts = UriComponentsBuilder.fromUriString(url).build();
@@ -798,7 +921,7 @@ public class  MigrationClient {
 		}
 	}
 
-	private boolean updateStateReasonToNotPlanned(JiraIssue jiraIssue, String url) {
+	private boolean updateStateReasonToNotPlanned(CompactJiraIssue jiraIssue, String url) {
 		RequestEntity<String> request = RequestEntity.patch(url)
 				.accept(new MediaType("application", "vnd.github.golden-comet-preview+json"))
 				.header("Authorization", "token " + this.config.getAccessToken())
@@ -810,20 +933,20 @@ public class  MigrationClient {
 		try {
 			ResponseEntity<String> responseEntity = getRest().exchange(request, String.class);
 			if (responseEntity.getStatusCode().is2xxSuccessful()) {
-				logger.info("Update state reason in GitHub for Jira issue [" + jiraIssue.getKey() + "] to not_planned");
+				logger.info("Update state reason in GitHub for Jira issue [" + jiraIssue.key() + "] to not_planned");
 				return true;
 			} else {
-				logger.error("Update state reason failed for Jira issue [: " + jiraIssue.getKey(), "], status code: " + responseEntity.getStatusCode());
+				logger.error("Update state reason failed for Jira issue [: " + jiraIssue.key(), "], status code: " + responseEntity.getStatusCode());
 				return false;
 			}
 		} catch (RestClientException ex) {
-			logger.error("Update state reason failed for Jira issue [: " + jiraIssue.getKey() + "]", ex);
+			logger.error("Update state reason failed for Jira issue [: " + jiraIssue.key() + "]", ex);
 			return false;
 		}
 	}
 
 	private GithubIssue initMilestoneBackportIssue(
-			Map<String, Object> milestone, List<JiraIssue> backportIssues, MigrationContext context) {
+			Map<String, Object> milestone, List<CompactJiraIssue> backportIssues, MigrationContext context) {
 		logger.debug("Milestone data: " + milestone);
 		GithubIssue ghIssue = new GithubIssue();
 		ghIssue.setMilestone((Integer) milestone.get("number"));
@@ -841,46 +964,46 @@ public class  MigrationClient {
 		}
 		String body = backportIssues.stream()
 				.map(jiraIssue -> {
-					String jiraKey = jiraIssue.getKey();
+					String jiraKey = jiraIssue.key();
 					Integer ghIssueId = context.getGitHubIssueId(jiraKey);
 					if (ghIssueId == null) {
 						context.addFailureMessage(milestone.get("title") +
 								" backport issues holder is a missing the GitHub issue id for " + jiraKey + "\n");
 					}
-					return "- " + jiraIssue.getFields().getSummary() + " #" + ghIssueId;
+					return "- " + jiraIssue.summary() + " #" + ghIssueId;
 				})
 				.collect(Collectors.joining("\n"));
-		JiraIssue backportIssue = backportIssues.get(0);
-		MarkupEngine engine = markup.engine(backportIssue.getFields().getCreated());
+		CompactJiraIssue backportIssue = backportIssues.get(0);
+		MarkupEngine engine = markup.engine(backportIssue.getCreatedDateTime());
 		body = engine.convert(body);  // escape annotations (colliding with GitHub mentions)
 		ghIssue.setBody(body);
 		return ghIssue;
 	}
 
-	public void updateLinkingPRAndClosedReason(List<JiraIssue> pendingJiraIssues, MigrationContext context) {
+	public void updateLinkingPRAndClosedReason(List<CompactJiraIssue> pendingJiraIssues, MigrationContext context) {
 		logger.info("Check status of pending issues from previous run.");
-		for (JiraIssue jiraIssue : pendingJiraIssues) {
-			Integer gitHubIssueId = context.getPendingGitHubIssueId(jiraIssue.getKey());
+		for (CompactJiraIssue jiraIssue : pendingJiraIssues) {
+			Integer gitHubIssueId = context.getPendingGitHubIssueId(jiraIssue.key());
             if (checkIfGithubIssueExists(gitHubIssueId)) {
 				logger.info("Linking pull request of GitHub issue " + gitHubIssueId);
 				executeLinkPullRequestForPrevioulyPendingIssues(jiraIssue, gitHubIssueId, context);
 				checkAndUpdateClosedReason(jiraIssue, gitHubIssueId);
-				context.logPendedIssueAsImport(jiraIssue.getKey());
+				context.logPendedIssueAsImport(jiraIssue.key());
 			} else {
 				logger.warn("GitHub issue " + gitHubIssueId + " is still pending" );
-				context.addPendingMessage(jiraIssue.getKey() + ":" + gitHubIssueId);
+				context.addPendingMessage(jiraIssue.key() + ":" + gitHubIssueId);
 			}
 
 		}
 	}
 
-	private void checkAndUpdateClosedReason(JiraIssue jiraIssue, Integer gitHubIssueId) {
-		var jiraResolution = jiraIssue != null ? jiraIssue.getFields().getResolution() : null;
-		if(jiraResolution != null && RESOLUTION_TYPES_FOR_NOT_PLANNED_MAPPING.contains(jiraResolution.getName())) {
+	private void checkAndUpdateClosedReason(CompactJiraIssue jiraIssue, Integer gitHubIssueId) {
+		var jiraResolution = jiraIssue != null ? jiraIssue.resolution() : null;
+		if(jiraResolution != null && RESOLUTION_TYPES_FOR_NOT_PLANNED_MAPPING.contains(jiraResolution)) {
 			String url = GITHUB_URL + "/repos/" + this.config.getRepositorySlug() + "/issues/" + gitHubIssueId;
 			boolean closedReasonUpdated = updateStateReasonToNotPlanned(jiraIssue, url);
 			if (!closedReasonUpdated) {
-                logger.warn("Closed reason update failed for Jira issue " + jiraIssue.getKey());
+                logger.warn("Closed reason update failed for Jira issue " + jiraIssue.key());
 			}
 		}
 	}
@@ -915,7 +1038,7 @@ public class  MigrationClient {
 		//  1) It's an issue imported from Jira
 		//  2) It's a backport issue holder for a specific milestone
 
-		final JiraIssue jiraIssue;
+		final CompactJiraIssue jiraIssue;
 		final Map<String, Object> milestone;
 
 		final ImportGithubIssueResponse importResponse;
@@ -17,12 +17,15 @@ package io.pivotal.migration;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import io.pivotal.jira.CompactJiraIssue;
 import io.pivotal.jira.JiraIssue;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -75,8 +78,12 @@ public class MigrationContext {
 		return jiraIssue -> issuesPendingMapping.containsKey(jiraIssue.getKey());
     }
 
-	public void addImportResult(MigrationClient.ImportedIssue imported) {
-		JiraIssue jiraIssue = imported.getJiraIssue();
+	public Set<String> getPendingIssueKeys() {
+		return Collections.unmodifiableSet(issuesPendingMapping.keySet());
+	}
+
+	public synchronized void addImportResult(MigrationClient.ImportedIssue imported) {
+		CompactJiraIssue jiraIssue = imported.getJiraIssue();
 		if (imported.getIssueNumber() != null) {
 			if (jiraIssue == null) {
 				backportIssueHolderCount++;
@@ -84,32 +91,32 @@ public class MigrationContext {
 			}
 
 			if ("pending".equals(imported.getImportResponse().getStatus())) {
-				issuesPendingMapping.put(jiraIssue.getKey(), imported.getIssueNumber());
-				writeLine(pendingWriter, jiraIssue.getKey() + ":" + imported.getIssueNumber() + "\n");
+				issuesPendingMapping.put(jiraIssue.key(), imported.getIssueNumber());
+				writeLine(pendingWriter, jiraIssue.key() + ":" + imported.getIssueNumber() + "\n");
 				return;
 			}
 
-			issueMappings.put(jiraIssue.getKey(), imported.getIssueNumber());
-			writeLine(mappingsWriter, jiraIssue.getKey() + ":" + imported.getIssueNumber() + "\n");
+			issueMappings.put(jiraIssue.key(), imported.getIssueNumber());
+			writeLine(mappingsWriter, jiraIssue.key() + ":" + imported.getIssueNumber() + "\n");
 		}
 		else {
 			failedImportCount++;
-			String ref = jiraIssue != null ? jiraIssue.getKey() : imported.getMilestone().get("title") + " backports";
+			String ref = jiraIssue != null ? jiraIssue.key() : imported.getMilestone().get("title") + " backports";
 			writeLine(failuresWriter, "=> " + ref + " [" + imported.getFailure() + "]\n");
 		}
 	}
 
-	public void logPendedIssueAsImport(String jiraIssueKey) {
+	public synchronized void logPendedIssueAsImport(String jiraIssueKey) {
 		Integer githubIssueNumber = issuesPendingMapping.remove(jiraIssueKey);
 		issueMappings.put(jiraIssueKey, githubIssueNumber);
 		writeLine(mappingsWriter, jiraIssueKey + ":" + githubIssueNumber + "\n");
 	}
 
-	public void addFailureMessage(String message) {
+	public synchronized void addFailureMessage(String message) {
 		writeLine(failuresWriter, message + "\n");
 	}
 
-	public void addPendingMessage(String message) {
+	public synchronized void addPendingMessage(String message) {
 		writeLine(pendingWriter, message + "\n");
 	}
 
@@ -123,18 +130,25 @@ public class MigrationContext {
 		}
 	}
 
-	public int getFailedImportCount() {
+	public synchronized int getFailedImportCount() {
 		return failedImportCount;
 	}
 
-	public Integer getGitHubIssueId(String jiraIssueKey) {
+	public synchronized Integer getGitHubIssueId(String jiraIssueKey) {
 		return issueMappings.get(jiraIssueKey);
 	}
 
-	public Integer getPendingGitHubIssueId(String jiraIssueKey) {
+	public synchronized Integer getPendingGitHubIssueId(String jiraIssueKey) {
 		return issuesPendingMapping.get(jiraIssueKey);
 	}
 
+	/**
+	 * Return a copy of the mappings from Jira keys to GitHub issue numbers.
+	 */
+	public synchronized Map<String, Integer> getIssueMappings() {
+		return Map.copyOf(issueMappings);
+	}
+
 	@Override
 	public String toString() {
 		return this.issueMappings.size() + " imported issues, " +
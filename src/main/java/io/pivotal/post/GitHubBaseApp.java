@@ -52,7 +52,11 @@ public class GitHubBaseApp extends BaseApp {
 	protected static final MediaType APPLICATION_GH_RAW_JSON = new MediaType("application", "vnd.github.3.raw+json");
 
 
-	protected static final RestTemplate rest = new GitHubRestTemplate(new RateLimitHelper(), logger);
+	protected static final RestTemplate rest = new GitHubRestTemplate(new RateLimitHelper(
+			Double.parseDouble(props.getProperty("github.write-rate", "1.0")),
+			Integer.parseInt(props.getProperty("github.write-burst", "1")),
+			Integer.parseInt(props.getProperty("github.writes-per-minute", "80")),
+			Integer.parseInt(props.getProperty("github.writes-per-hour", "500"))), logger);
 
 	protected static final String jiraBaseUrl = props.getProperty("jira.base-url");
 
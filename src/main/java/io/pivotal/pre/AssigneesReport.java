@@ -17,6 +17,7 @@ package io.pivotal.pre;
 
 import io.pivotal.jira.JiraClient;
 import io.pivotal.jira.JiraConfig;
+import io.pivotal.jira.JiraFieldProfile;
 import io.pivotal.jira.JiraIssue;
 import io.pivotal.jira.JiraUser;
 import java.nio.file.Files;
@@ -57,7 +58,7 @@ public class AssigneesReport extends BaseApp {
 		JiraClient client = new JiraClient(config);
 
 		Map<JiraUserName, JiraUserData> result = new HashMap<>();
-		for (JiraIssue issue : client.findIssues(config.getMigrateJql())) {
+		for (JiraIssue issue : client.findIssues(config.getMigrateJql(), JiraFieldProfile.METADATA)) {
 			JiraUser user = issue.getFields().getAssignee();
 			if (user != null) {
 				JiraUserName asignee = new JiraUserName(user.getKey());
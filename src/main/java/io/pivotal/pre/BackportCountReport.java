@@ -17,6 +17,7 @@ package io.pivotal.pre;
 
 import io.pivotal.jira.JiraClient;
 import io.pivotal.jira.JiraConfig;
+import io.pivotal.jira.JiraFieldProfile;
 import io.pivotal.jira.JiraIssue;
 
 
@@ -39,7 +40,7 @@ public class BackportCountReport extends BaseApp {
 		JiraConfig config = initJiraConfig();
 		JiraClient client = new JiraClient(config);
 
-		long count = client.findIssues(config.getMigrateJql())
+		long count = client.findIssues(config.getMigrateJql(), JiraFieldProfile.METADATA)
 				.stream()
 				.mapToLong(issue -> issue.getBackportVersions().size())
 				.sum();
@@ -21,9 +21,11 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.function.Consumer;
 
 import io.pivotal.jira.JiraConfig;
 
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
 
@@ -55,9 +57,34 @@ public class BaseApp {
 		config.setUser(props.getProperty("jira.user"));
 		config.setPassword(props.getProperty("jira.password"));
 		config.setComponent(props.getProperty("jira.component"));
+		config.setCacheDir(props.getProperty("jira.cache-dir"));
+		config.setReplayArchive(props.getProperty("jira.replay-archive"));
+		setIfPresent("jira.search-concurrency", value -> config.setSearchConcurrency(Integer.parseInt(value)));
+		setIfPresent("jira.min-page-size", value -> config.setMinPageSize(Integer.parseInt(value)));
+		setIfPresent("jira.max-page-size", value -> config.setMaxPageSize(Integer.parseInt(value)));
+		setIfPresent("jira.slow-search-page-threshold",
+				value -> config.setSlowSearchPageThreshold(DurationStyle.detectAndParse(value)));
+		setIfPresent("jira.decode-parallelism", value -> config.setDecodeParallelism(Integer.parseInt(value)));
+		setIfPresent("jira.fetch-commits", value -> config.setFetchCommits(Boolean.parseBoolean(value)));
+		config.setCommitRepository(props.getProperty("jira.commit-repository"));
+		config.setCommitUrlPrefix(props.getProperty("jira.commit-url-prefix"));
+		setIfPresent("jira.enrichment-concurrency", value -> config.setEnrichmentConcurrency(Integer.parseInt(value)));
+		setIfPresent("jira.write-concurrency", value -> config.setWriteConcurrency(Integer.parseInt(value)));
+		setIfPresent("jira.light-restart", value -> config.setLightRestart(Boolean.parseBoolean(value)));
+		setIfPresent("jira.local-queries", value -> config.setLocalQueries(Boolean.parseBoolean(value)));
+		setIfPresent("jira.shard-max-issues", value -> config.setShardMaxIssues(Integer.parseInt(value)));
+		setIfPresent("jira.shard-max-comments", value -> config.setShardMaxComments(Integer.parseInt(value)));
+		setIfPresent("jira.shard-sample-size", value -> config.setShardSampleSize(Integer.parseInt(value)));
 		return config;
 	}
 
+	private static void setIfPresent(String name, Consumer<String> setter) {
+		String value = props.getProperty(name);
+		if (value != null) {
+			setter.accept(value.trim());
+		}
+	}
+
 	protected static Map<String, Integer> loadIssueMappings(File mappingsFile) throws IOException {
 		Properties props = new Properties();
 		props.load(new FileInputStream(mappingsFile));
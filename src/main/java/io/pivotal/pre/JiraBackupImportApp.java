@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.pre;
+
+import java.io.File;
+import java.io.IOException;
+
+import io.pivotal.jira.JiraClient;
+import io.pivotal.jira.JiraConfig;
+import io.pivotal.jira.JiraIssueArchive;
+
+/**
+ * Read the issues of {@code jira.projectId} from a Jira backup export, i.e. the
+ * backup zip file or the {@code entities.xml} file in it, and write them to an
+ * archive, by default {@code <projectId>-issues.ndjson.gz}. Set the property
+ * {@code jira.replay-archive} to the archive to then run the migration or any of
+ * the pre and post tools against it, as for {@link JiraArchiveApp}.
+ */
+public class JiraBackupImportApp extends BaseApp {
+
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length == 0) {
+			System.out.println("Usage: JiraBackupImportApp <backup file> [<archive file>]");
+			return;
+		}
+
+		JiraConfig config = initJiraConfig();
+		JiraClient client = new JiraClient(config);
+
+		File file = new File(args.length > 1 ? args[1] : config.getProjectId() + "-issues.ndjson.gz");
+		JiraIssueArchive archive = client.archiveBackup(new File(args[0]), file);
+
+		System.out.println("Archived issues to " + archive.getFile().getAbsolutePath());
+	}
+
+}
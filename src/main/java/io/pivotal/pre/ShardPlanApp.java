@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.pre;
+
+import java.util.List;
+
+import io.pivotal.jira.JiraClient;
+import io.pivotal.jira.JiraConfig;
+import io.pivotal.jira.JiraShardPlanner;
+import io.pivotal.jira.JiraShardPlanner.Shard;
+
+/**
+ * Plan key ranges to migrate a large project in several runs, and print a
+ * {@code jira.migrate-jql} line for each, to use in turn. Limits are set with
+ * {@code jira.shard-max-issues} and {@code jira.shard-max-comments}.
+ */
+public class ShardPlanApp extends BaseApp {
+
+
+	public static void main(String[] args) {
+
+		JiraConfig config = initJiraConfig();
+		JiraClient client = new JiraClient(config);
+
+		List<Shard> shards = new JiraShardPlanner(client, config).plan(config.getMigrateJql());
+
+		System.out.println("# JQL Queries for " + config.getProjectId() + " migration in " + shards.size() + " runs");
+		for (Shard shard : shards) {
+			System.out.println("#jira.migrate-jql=" + shard.getJql().replace("=", "\\=") +
+					" # " + shard.getIssueCount() + " issues, ~" + shard.getEstimatedCommentCount() + " comments");
+		}
+	}
+
+}
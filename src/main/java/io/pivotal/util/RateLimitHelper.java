@@ -16,34 +16,228 @@
 package io.pivotal.util;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 
-import reactor.core.publisher.Mono;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.springframework.http.HttpHeaders;
 
 /**
- * Rate limiter to ensure more efficient adherence to GitHub's limit of 1 update
- * per second. Simply sleeping before a call tends to stretch the overall time
- * as there is some additional processing time between calls.
+ * Rate limiter for GitHub requests, shared by all threads using a
+ * {@code GitHubRestTemplate}.
+ *
+ * <p>Content-creating requests (POST, PATCH, PUT, DELETE) take a permit from a
+ * token bucket with a configurable rate and burst, and also stay within
+ * GitHub's secondary limits per minute and per hour, tracked over sliding
+ * windows. Permits are reserved in order, and the wait happens outside the lock.
+ *
+ * <p>All requests, reads included, wait for the primary limit to reset when the
+ * {@code X-RateLimit-Remaining} header of any earlier response reached zero,
+ * and during a pause after a rate limit error, rather than failing first.
  *
  * @author Rossen Stoyanchev
  */
 public class RateLimitHelper {
 
-	private static final Mono<Object> parentMono = Mono.just("foo");
+	private static final Logger logger = LogManager.getLogger(RateLimitHelper.class);
+
+	private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+	private static final long HOUR = Duration.ofHours(1).toMillis();
+
+
+	private final double permitsPerMilli;
+
+	private final int burst;
+
+	private final SlidingWindow minuteWindow;
+
+	private final SlidingWindow hourWindow;
+
+	private double tokens;
+
+	private long lastRefill = -1;
+
+	private long lastReserved;
+
+	private int remaining = -1;
 
-	private final Duration timeBetweenCalls = Duration.ofSeconds(2);
+	private long resetAt;
 
-	private Mono<Object> nextPermit;
+	private long pausedUntil;
 
 
+	/**
+	 * Create a limiter with GitHub's documented guidance: one content-creating
+	 * request per second, at most 80 per minute and 500 per hour.
+	 */
+	public RateLimitHelper() {
+		this(1.0, 1, 80, 500);
+	}
+
+	/**
+	 * Create a limiter for content-creating requests.
+	 * @param permitsPerSecond the sustained rate
+	 * @param burst the number of requests that may be sent at once after an idle period
+	 * @param maxPerMinute the max number of requests per minute, or 0 for no limit
+	 * @param maxPerHour the max number of requests per hour, or 0 for no limit
+	 */
+	public RateLimitHelper(double permitsPerSecond, int burst, int maxPerMinute, int maxPerHour) {
+		this.permitsPerMilli = permitsPerSecond / 1000;
+		this.burst = Math.max(1, burst);
+		this.tokens = this.burst;
+		this.minuteWindow = new SlidingWindow(MINUTE, maxPerMinute);
+		this.hourWindow = new SlidingWindow(HOUR, maxPerHour);
+	}
+
+
+	/**
+	 * Wait for a permit for a content-creating request.
+	 */
 	public void obtainPermitToCall() {
-		if (nextPermit != null) {
-			nextPermit.block();
+		awaitPrimaryLimit();
+		sleep(reservePermit(System.currentTimeMillis()));
+	}
+
+	/**
+	 * Wait while the primary limit is exhausted, or requests are paused.
+	 */
+	public void awaitPrimaryLimit() {
+		sleep(getPrimaryLimitWait(System.currentTimeMillis()));
+	}
+
+	/**
+	 * Update the primary limit from the {@code X-RateLimit-*} headers of a response.
+	 */
+	public synchronized void updateFromHeaders(HttpHeaders headers) {
+		String remainingHeader = headers.getFirst("X-RateLimit-Remaining");
+		String resetHeader = headers.getFirst("X-RateLimit-Reset");
+		if (remainingHeader == null || resetHeader == null) {
+			return;
+		}
+		try {
+			this.remaining = Integer.parseInt(remainingHeader);
+			this.resetAt = Long.parseLong(resetHeader) * 1000;
+		}
+		catch (NumberFormatException ex) {
+			logger.debug("Ignoring rate limit headers {}/{}", remainingHeader, resetHeader);
 		}
-		resetNextPermit();
 	}
 
-	private void resetNextPermit() {
-		nextPermit = parentMono.delayElement(timeBetweenCalls);
+	/**
+	 * Pause all requests, e.g. after a secondary rate limit error.
+	 */
+	public synchronized void pause(Duration duration) {
+		long until = System.currentTimeMillis() + duration.toMillis();
+		if (until > this.pausedUntil) {
+			logger.warn("Pausing GitHub requests for {} s", duration.toSeconds());
+			this.pausedUntil = until;
+		}
+	}
+
+	/**
+	 * Reserve the next permit for a content-creating request.
+	 * @return how long to wait before sending the request, in milliseconds
+	 */
+	synchronized long reservePermit(long now) {
+		if (this.lastRefill == -1) {
+			this.lastRefill = now;
+		}
+		if (now > this.lastRefill) {
+			this.tokens = Math.min(this.burst, this.tokens + (now - this.lastRefill) * this.permitsPerMilli);
+			this.lastRefill = now;
+		}
+		long time = now;
+		if (this.tokens < 1) {
+			time += (long) Math.ceil((1 - this.tokens) / this.permitsPerMilli);
+		}
+		// Keep reservations in order, and sending later only lets more requests expire from a window
+		time = Math.max(time, this.lastReserved);
+		time = this.minuteWindow.nextSlot(time);
+		time = this.hourWindow.nextSlot(time);
+		this.tokens -= 1;
+		this.lastReserved = time;
+		this.minuteWindow.add(time);
+		this.hourWindow.add(time);
+		return time - now;
+	}
+
+	/**
+	 * Return how long to wait for the primary limit to reset or a pause to end,
+	 * in milliseconds, counting the request about to be sent against the limit.
+	 */
+	synchronized long getPrimaryLimitWait(long now) {
+		long until = this.pausedUntil;
+		if (this.remaining == 0 && this.resetAt > now) {
+			until = Math.max(until, this.resetAt);
+		}
+		else if (this.remaining > 0) {
+			this.remaining--;
+		}
+		return Math.max(0, until - now);
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+		if (millis > MINUTE) {
+			logger.info("Waiting {} s for the GitHub rate limit", millis / 1000);
+		}
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	/**
+	 * The times of requests within a window, oldest first.
+	 */
+	private static class SlidingWindow {
+
+		private final long length;
+
+		private final int limit;
+
+		private final Deque<Long> times = new ArrayDeque<>();
+
+		SlidingWindow(long length, int limit) {
+			this.length = length;
+			this.limit = limit;
+		}
+
+		/**
+		 * Return the earliest time, at or after the given one, with room in the window.
+		 */
+		long nextSlot(long time) {
+			if (this.limit <= 0) {
+				return time;
+			}
+			while (!this.times.isEmpty() && this.times.peekFirst() <= time - this.length) {
+				this.times.pollFirst();
+			}
+			if (this.times.size() < this.limit) {
+				return time;
+			}
+			// Reservations are in order, so there is room once enough of the oldest expire
+			Iterator<Long> iterator = this.times.iterator();
+			for (int i = this.times.size() - this.limit; i > 0; i--) {
+				iterator.next();
+			}
+			return iterator.next() + this.length;
+		}
+
+		void add(long time) {
+			if (this.limit > 0) {
+				this.times.addLast(time);
+			}
+		}
 	}
 
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+public class AdaptiveLimiterTests {
+
+	private static final Duration NOT_SLOW = Duration.ofMinutes(1);
+
+
+	@Test
+	public void startsAtMax() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 8, 1, NOT_SLOW);
+
+		assertThat(limiter.getLimit()).isEqualTo(8);
+	}
+
+	@Test
+	public void additiveIncreaseOnSuccess() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 8, 1, NOT_SLOW);
+		fail(limiter, responseException(429));
+		assertThat(limiter.getLimit()).isEqualTo(4);
+
+		succeed(limiter);
+		assertThat(limiter.getLimit()).isEqualTo(5);
+		succeed(limiter);
+		assertThat(limiter.getLimit()).isEqualTo(6);
+	}
+
+	@Test
+	public void multiplicativeDecreaseOnCongestion() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 64, 1, NOT_SLOW);
+
+		fail(limiter, responseException(429));
+		assertThat(limiter.getLimit()).isEqualTo(32);
+		fail(limiter, responseException(503));
+		assertThat(limiter.getLimit()).isEqualTo(16);
+		fail(limiter, responseException(500));
+		assertThat(limiter.getLimit()).isEqualTo(8);
+		fail(limiter, new TimeoutException());
+		assertThat(limiter.getLimit()).isEqualTo(4);
+	}
+
+	@Test
+	public void otherErrorsLeaveLimit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 8, 1, NOT_SLOW);
+
+		fail(limiter, responseException(400));
+		fail(limiter, responseException(404));
+		fail(limiter, new IllegalStateException());
+
+		assertThat(limiter.getLimit()).isEqualTo(8);
+	}
+
+	@Test
+	public void slowResponseDecreases() throws Exception {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 8, 1, Duration.ofMillis(1));
+		long startTime = System.nanoTime();
+		Thread.sleep(10);
+
+		limiter.record(startTime, null);
+
+		assertThat(limiter.getLimit()).isEqualTo(4);
+	}
+
+	@Test
+	public void oneChangePerRound() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 64, 1, NOT_SLOW);
+		long startTime = System.nanoTime();
+
+		// Requests started together, failing together, halve the limit once
+		limiter.record(startTime, responseException(503));
+		limiter.record(startTime, responseException(503));
+		limiter.record(startTime, new TimeoutException());
+
+		assertThat(limiter.getLimit()).isEqualTo(32);
+	}
+
+	@Test
+	public void clampedToMinAndMax() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("test", 3, 8, 4, NOT_SLOW);
+
+		for (int i = 0; i < 5; i++) {
+			fail(limiter, responseException(429));
+		}
+		assertThat(limiter.getLimit()).isEqualTo(3);
+
+		for (int i = 0; i < 5; i++) {
+			succeed(limiter);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(8);
+	}
+
+	@Test
+	public void invalidBounds() {
+		assertThat(new AdaptiveLimiter("test", 0, 0, 1, NOT_SLOW).getLimit()).isEqualTo(1);
+
+		AdaptiveLimiter limiter = new AdaptiveLimiter("test", 10, 5, 1, NOT_SLOW);
+		fail(limiter, responseException(429));
+		assertThat(limiter.getLimit()).isEqualTo(5);
+	}
+
+	@Test
+	public void pageSizeShrinkAndRecovery() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter("page size", 50, 1000, 50, NOT_SLOW);
+
+		fail(limiter, new TimeoutException());
+		assertThat(limiter.getLimit()).isEqualTo(500);
+		fail(limiter, responseException(502));
+		assertThat(limiter.getLimit()).isEqualTo(250);
+		fail(limiter, new TimeoutException());
+		fail(limiter, new TimeoutException());
+		fail(limiter, new TimeoutException());
+		assertThat(limiter.getLimit()).isEqualTo(50);
+
+		succeed(limiter);
+		assertThat(limiter.getLimit()).isEqualTo(100);
+		for (int i = 0; i < 18; i++) {
+			succeed(limiter);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(1000);
+		succeed(limiter);
+		assertThat(limiter.getLimit()).isEqualTo(1000);
+	}
+
+	private static void succeed(AdaptiveLimiter limiter) {
+		limiter.record(System.nanoTime(), null);
+	}
+
+	private static void fail(AdaptiveLimiter limiter, Throwable ex) {
+		limiter.record(System.nanoTime(), ex);
+	}
+
+	private static WebClientResponseException responseException(int status) {
+		return WebClientResponseException.create(status, "", new HttpHeaders(), new byte[0], null);
+	}
+
+}
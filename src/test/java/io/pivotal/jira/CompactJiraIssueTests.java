@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class CompactJiraIssueTests {
+
+	@Test
+	public void fromIssue() {
+		CompactJiraIssue compact = CompactJiraIssue.from(issue());
+
+		assertThat(compact.key()).isEqualTo("SPR-1");
+		assertThat(compact.isPublic()).isTrue();
+		assertThat(compact.resolution()).isEqualTo("Fixed");
+		assertThat(compact.fixVersion()).isEqualTo("5.3.1");
+		assertThat(compact.backportVersions()).containsExactly("5.2.9", "5.1.20");
+		assertThat(compact.remoteLinkUrls()).containsExactly("https://github.com/spring-projects/spring-framework/pull/1");
+	}
+
+	@Test
+	public void equalsByValue() {
+		CompactJiraIssue compact = CompactJiraIssue.from(issue());
+		CompactJiraIssue other = CompactJiraIssue.from(issue());
+
+		assertThat(compact).isEqualTo(other);
+		assertThat(compact).hasSameHashCodeAs(other);
+		assertThat(compact.toString()).contains("[5.2.9, 5.1.20]");
+	}
+
+	@Test
+	public void immutable() {
+		List<String> versions = new ArrayList<>(List.of("5.2.9"));
+		CompactJiraIssue compact = new CompactJiraIssue("SPR-1", "Summary", 0, 0, true, false, null, "5.3.1",
+				versions, List.of());
+		versions.add("5.1.20");
+
+		assertThat(compact.backportVersions()).containsExactly("5.2.9");
+		assertThatThrownBy(() -> compact.backportVersions().add("5.0.0"))
+				.isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	private static JiraIssue issue() {
+		List<JiraFixVersion> fixVersions = new ArrayList<>();
+		for (String name : List.of("5.1.20", "5.3.1", "5.2.9")) {
+			JiraFixVersion version = new JiraFixVersion();
+			version.setName(name);
+			fixVersions.add(version);
+		}
+		JiraResolution resolution = new JiraResolution();
+		resolution.setName("Fixed");
+		RemoteLink remoteLink = new RemoteLink();
+		remoteLink.setUrl("https://github.com/spring-projects/spring-framework/pull/1");
+
+		JiraIssue.Fields fields = new JiraIssue.Fields();
+		fields.setSummary("Summary");
+		fields.setFixVersions(fixVersions);
+		fields.setSubtasks(List.of());
+		fields.setResolution(resolution);
+		fields.setRemoteLinks(List.of(remoteLink));
+
+		JiraIssue issue = new JiraIssue();
+		issue.setKey("SPR-1");
+		issue.setFields(fields);
+		issue.initFixAndBackportVersions();
+		return issue;
+	}
+
+}
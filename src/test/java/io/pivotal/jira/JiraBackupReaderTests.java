@@ -0,0 +1,195 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JiraBackupReaderTests {
+
+	private static final String BASE_URL = "https://jira.example.org";
+
+	private static final String ENTITIES = """
+			<?xml version="1.0" encoding="UTF-8"?>
+			<entity-engine-xml>
+			    <Project id="10000" key="SPR" name="Spring Framework"/>
+			    <Project id="10001" key="DATAREST" name="Spring Data REST"/>
+			    <Version id="101" project="10000" name="5.3.1" sequence="2" released="false"/>
+			    <Version id="100" project="10000" name="5.3.0" sequence="1" released="true" releasedate="2020-10-27 00:00:00.0"/>
+			    <Version id="102" project="10001" name="3.4.0" sequence="1"/>
+			    <Component id="200" project="10000" name="Core"/>
+			    <Component id="201" project="10001" name="Repositories"/>
+			    <IssueType id="1" name="Bug"/>
+			    <IssueType id="5" name="Backport"/>
+			    <Status id="6" name="Closed"/>
+			    <Priority id="3" name="Major"/>
+			    <Resolution id="1" name="Fixed"/>
+			    <User id="300" lowerUserName="jdoe" displayName="Jane Doe"/>
+			    <ApplicationUser id="301" userKey="JIRAUSER10301" lowerUserName="jdoe"/>
+			    <IssueLinkType id="400" linkname="Relate" inward="is related to" outward="relates to"/>
+			    <IssueLinkType id="401" linkname="jira_subtask_link" inward="jira_subtask_inward" outward="jira_subtask_outward" style="jira_subtask"/>
+			    <ProjectRole id="500" name="Developers"/>
+			    <Issue id="20002" key="SPR-2" project="10000" summary="Backport to 5.3.x" type="5" status="6"/>
+			    <Issue id="20001" project="10000" number="1" summary="Parent issue" type="1" status="6" priority="3"
+			            resolution="1" reporter="JIRAUSER10301" created="2020-10-01 10:15:00.0" updated="2020-10-05 08:00:00.0"
+			            votes="4" watches="2">
+			        <description><![CDATA[Fails with <null>]]></description>
+			    </Issue>
+			    <Issue id="30001" project="10001" number="7" summary="In another project" type="1"/>
+			    <Issue id="30002" project="10001" number="8" summary="Not linked to the project" type="1"/>
+			    <Action id="600" issue="20001" type="comment" author="JIRAUSER10301" created="2020-10-03 09:00:00.0" rolelevel="500">
+			        <body>Second, for developers</body>
+			    </Action>
+			    <Action id="601" issue="20001" type="comment" author="JIRAUSER10301" created="2020-10-02 09:00:00.0" body="First"/>
+			    <Action id="602" issue="20001" type="comment" created="2020-10-04 09:00:00.0" level="jira-users" body="Third"/>
+			    <Action id="603" issue="20001" type="worklog" created="2020-10-04 10:00:00.0" body="Not a comment"/>
+			    <Action id="604" issue="30001" type="comment" created="2020-10-04 10:00:00.0" body="Other project"/>
+			    <NodeAssociation sourceNodeId="20001" sourceNodeEntity="Issue" sinkNodeId="100" sinkNodeEntity="Version" associationType="IssueVersion"/>
+			    <NodeAssociation sourceNodeId="20001" sourceNodeEntity="Issue" sinkNodeId="101" sinkNodeEntity="Version" associationType="IssueFixVersion"/>
+			    <NodeAssociation sourceNodeId="20001" sourceNodeEntity="Issue" sinkNodeId="200" sinkNodeEntity="Component" associationType="IssueComponent"/>
+			    <NodeAssociation sourceNodeId="20002" sourceNodeEntity="Issue" sinkNodeId="100" sinkNodeEntity="Version" associationType="IssueFixVersion"/>
+			    <NodeAssociation sourceNodeId="30001" sourceNodeEntity="Issue" sinkNodeId="102" sinkNodeEntity="Version" associationType="IssueFixVersion"/>
+			    <Label id="700" issue="20001" label="regression"/>
+			    <FileAttachment id="800" issue="20001" filename="trace.txt" filesize="2048"/>
+			    <RemoteIssueLink id="900" issueid="20001" url="https://github.com/spring-projects/spring-framework/pull/1" title="PR"/>
+			    <IssueLink id="1000" linktype="401" source="20001" destination="20002"/>
+			    <IssueLink id="1001" linktype="400" source="20001" destination="30001"/>
+			    <IssueLink id="1002" linktype="400" source="30001" destination="20002"/>
+			    <IssueLink id="1003" linktype="400" source="30001" destination="30002"/>
+			    <CustomFieldValue id="1100" issue="20001" customfield="10120" stringvalue="https://example.org/reference"/>
+			    <CustomFieldValue id="1101" issue="20001" customfield="10684">
+			        <textvalue>https://github.com/spring-projects/spring-framework/pull/2</textvalue>
+			    </CustomFieldValue>
+			</entity-engine-xml>
+			""";
+
+
+	@Test
+	public void readEntities(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("entities.xml");
+		Files.writeString(file, ENTITIES);
+		assertContent(new JiraBackupReader(file.toFile(), BASE_URL).read("SPR"));
+	}
+
+	@Test
+	public void readZip(@TempDir Path dir) throws IOException {
+		File file = dir.resolve("backup.zip").toFile();
+		try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+			zip.putNextEntry(new ZipEntry("activeobjects.xml"));
+			zip.write("<backup/>".getBytes(StandardCharsets.UTF_8));
+			zip.putNextEntry(new ZipEntry("entities.xml"));
+			zip.write(ENTITIES.getBytes(StandardCharsets.UTF_8));
+		}
+		assertContent(new JiraBackupReader(file, BASE_URL).read("SPR"));
+	}
+
+	@Test
+	public void unknownProject(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("entities.xml");
+		Files.writeString(file, ENTITIES);
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new JiraBackupReader(file.toFile(), BASE_URL).read("INT"))
+				.withMessageContaining("INT");
+	}
+
+	private void assertContent(JiraBackupReader.Content content) {
+		assertThat(content.getProject().getVersions()).extracting(JiraVersion::getName).containsExactly("5.3.0", "5.3.1");
+		assertThat(content.getProject().getComponents()).extracting(JiraComponent::getName).containsExactly("Core");
+		assertThat(content.getIssues()).extracting(JiraIssue::getKey).containsExactly("SPR-1", "SPR-2");
+		Map<String, JiraIssue> issues = content.getIssues().stream()
+				.collect(Collectors.toMap(JiraIssue::getKey, Function.identity()));
+
+		JiraIssue issue = issues.get("SPR-1");
+		JiraIssue.Fields fields = issue.getFields();
+		assertThat(issue.getId()).isEqualTo("20001");
+		assertThat(issue.getSelf()).isEqualTo(BASE_URL + "/rest/api/2/issue/20001");
+		assertThat(issue.getCommitUrls()).isEmpty();
+		assertThat(fields.getSummary()).isEqualTo("Parent issue");
+		assertThat(fields.getDescription()).isEqualTo("Fails with <null>");
+		assertThat(fields.getCreated().getMillis()).isEqualTo(new DateTime(2020, 10, 1, 10, 15).getMillis());
+		assertThat(fields.getIssuetype().getName()).isEqualTo("Bug");
+		assertThat(fields.getStatus().getName()).isEqualTo("Closed");
+		assertThat(fields.getPriority().getName()).isEqualTo("Major");
+		assertThat(fields.getResolution().getName()).isEqualTo("Fixed");
+		assertThat(fields.getReporter().getDisplayName()).isEqualTo("Jane Doe");
+		assertThat(fields.getAssignee()).isNull();
+		assertThat(fields.getVotes().getVotes()).isEqualTo(4);
+		assertThat(fields.getWatches().getWatchCount()).isEqualTo(2);
+		assertThat(fields.getVersions()).extracting(JiraVersion::getName).containsExactly("5.3.0");
+		assertThat(fields.getFixVersions()).extracting(JiraFixVersion::getName).containsExactly("5.3.1");
+		assertThat(fields.getComponents()).extracting(JiraComponent::getName).containsExactly("Core");
+		assertThat(fields.getLabels()).containsExactly("regression");
+		assertThat(fields.getAttachment()).singleElement().satisfies(attachment -> {
+			assertThat(attachment.getFilename()).isEqualTo("trace.txt");
+			assertThat(attachment.getContent()).isEqualTo(BASE_URL + "/secure/attachment/800/trace.txt");
+			assertThat(attachment.getSize()).isEqualTo(2048);
+		});
+		assertThat(fields.getRemoteLinks()).extracting(RemoteLink::getUrl)
+				.containsExactly("https://github.com/spring-projects/spring-framework/pull/1");
+		assertThat(fields.getReferenceUrl()).isEqualTo("https://example.org/reference");
+		assertThat(fields.getPullRequestUrl()).isEqualTo("https://github.com/spring-projects/spring-framework/pull/2");
+
+		// Sorted by creation time, and without other actions or comments of other projects
+		List<JiraComment> comments = fields.getComment().getComments();
+		assertThat(fields.getComment().getTotal()).isEqualTo(3);
+		assertThat(comments).extracting(JiraComment::getBody)
+				.containsExactly("First", "Second, for developers", "Third");
+		assertThat(comments.get(0).getVisibility()).isNull();
+		assertThat(comments.get(0).getAuthor().getDisplayName()).isEqualTo("Jane Doe");
+		assertThat(comments.get(1).getVisibility().getValue()).isEqualTo("Developers");
+		assertThat(comments.get(2).getVisibility().getValue()).isEqualTo("jira-users");
+
+		// Sub-task links are not issue links
+		assertThat(fields.getSubtasks()).extracting(JiraIssue::getKey).containsExactly("SPR-2");
+		assertThat(fields.getIssuelinks()).singleElement().satisfies(link -> {
+			assertThat(link.getType().getName()).isEqualTo("Relate");
+			assertThat(link.getType().getOutward()).isEqualTo("relates to");
+			assertThat(link.getInwardIssue()).isNull();
+			assertThat(link.getOutwardIssue().getKey()).isEqualTo("DATAREST-7");
+			assertThat(link.getOutwardIssue().getFields().getSummary()).isEqualTo("In another project");
+		});
+
+		JiraIssue subtask = issues.get("SPR-2");
+		assertThat(subtask.getFields().getIssuetype().getName()).isEqualTo("Backport");
+		assertThat(subtask.getFields().getParent().getKey()).isEqualTo("SPR-1");
+		assertThat(subtask.getFields().getFixVersions()).extracting(JiraFixVersion::getName).containsExactly("5.3.0");
+		assertThat(subtask.getFields().getComment().getComments()).isEmpty();
+		assertThat(subtask.getFields().getComment().getTotal()).isZero();
+		assertThat(subtask.getFields().getIssuelinks()).singleElement().satisfies(link -> {
+			assertThat(link.getType().getInward()).isEqualTo("is related to");
+			assertThat(link.getOutwardIssue()).isNull();
+			assertThat(link.getInwardIssue().getKey()).isEqualTo("DATAREST-7");
+		});
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+public class JiraInterningModuleTests {
+
+	private final JiraInterningModule module = new JiraInterningModule();
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(module).build();
+
+
+	@Test
+	public void equalValuesAreShared() throws Exception {
+		String json = "[" +
+				"{\"key\":\"rwinch\",\"displayName\":\"Rob Winch\",\"self\":\"https://issues.apache.org/jira\"}," +
+				"{\"key\":\"rwinch\",\"displayName\":\"Rob Winch\",\"self\":\"https://issues.apache.org/jira\"}," +
+				"{\"key\":\"jhoeller\",\"displayName\":\"Juergen Hoeller\",\"self\":\"https://issues.apache.org/jira\"}]";
+
+		List<JiraUser> users = objectMapper.readValue(json, new TypeReference<>() {});
+
+		assertThat(users.get(0)).isSameAs(users.get(1));
+		assertThat(users.get(2)).isNotSameAs(users.get(0));
+		assertThat(module.getPoolSize()).isEqualTo(2);
+	}
+
+	@Test
+	public void nestedValuesAreShared() throws Exception {
+		String json = "{\"key\":\"SPR-%d\",\"fields\":{\"status\":{\"name\":\"Closed\"}," +
+				"\"fixVersions\":[{\"name\":\"5.3.1\"}],\"issuetype\":{\"id\":1,\"name\":\"Bug\"}}}";
+
+		JiraIssue issue1 = objectMapper.readValue(String.format(json, 1), JiraIssue.class);
+		JiraIssue issue2 = objectMapper.readValue(String.format(json, 2), JiraIssue.class);
+
+		assertThat(issue1).isNotSameAs(issue2);
+		assertThat(issue1.getFields().getStatus()).isSameAs(issue2.getFields().getStatus());
+		assertThat(issue1.getFields().getFixVersions().get(0)).isSameAs(issue2.getFields().getFixVersions().get(0));
+		assertThat(issue1.getFields().getIssuetype()).isSameAs(issue2.getFields().getIssuetype());
+	}
+
+}
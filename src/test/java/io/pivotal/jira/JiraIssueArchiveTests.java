@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+public class JiraIssueArchiveTests {
+
+	private static final String LAZY_ISSUE = "{\"key\":\"SPR-1\",\"fields\":{\"summary\":\"From search\"," +
+			"\"created\":\"2013-02-01T10:15:00.000Z\"," +
+			"\"issuelinks\":[{\"type\":{\"name\":\"Relate\",\"outward\":\"relates to\"},\"outwardIssue\":{\"key\":\"SPR-2\"}}]," +
+			"\"attachment\":[{\"filename\":\"trace.txt\",\"content\":\"https://jira/trace.txt\",\"size\":2048}]," +
+			"\"watches\":{\"watchCount\":3}," +
+			"\"comment\":{\"startAt\":0,\"maxResults\":1,\"total\":1,\"comments\":[" +
+			"{\"body\":\"Restricted\",\"visibility\":{\"type\":\"role\",\"value\":\"Developers\"}}]}}}";
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+
+	@Test
+	public void roundTripWithUnboundLazyFields(@TempDir Path dir) throws IOException {
+		JiraIssueArchive archive = new JiraIssueArchive(dir.resolve("issues.ndjson.gz").toFile(), objectMapper);
+		JiraIssue issue = objectMapper.readValue(LAZY_ISSUE, JiraIssue.class);
+
+		// Not accessed before writing, so written from the buffered tokens
+		archive.append(List.of(issue));
+
+		List<JiraIssue> issues = archive.readAll();
+		assertThat(issues).hasSize(1);
+		assertLazyFields(issues.get(0));
+		assertThat(issues.get(0).getFields().getCreated().getMillis())
+				.isEqualTo(new DateTime(2013, 2, 1, 10, 15, DateTimeZone.UTC).getMillis());
+		assertLazyFields(archive.read("SPR-1"));
+	}
+
+	@Test
+	public void roundTripWithBoundLazyFields(@TempDir Path dir) throws IOException {
+		JiraIssueArchive archive = new JiraIssueArchive(dir.resolve("issues.ndjson.gz").toFile(), objectMapper);
+		JiraIssue issue = objectMapper.readValue(LAZY_ISSUE, JiraIssue.class);
+		assertLazyFields(issue);
+
+		JiraIssue built = new JiraIssue();
+		built.setKey("SPR-3");
+		built.setFields(new JiraIssue.Fields());
+		built.getFields().setWatches(new JiraWatcher());
+		built.getFields().getWatches().setWatchCount(5);
+		built.getFields().setAttachment(List.of(new JiraAttachment("a.png", "https://jira/a.png", 10)));
+
+		archive.append(List.of(issue, built));
+
+		List<JiraIssue> issues = archive.readAll();
+		assertThat(issues).extracting(JiraIssue::getKey).containsExactly("SPR-1", "SPR-3");
+		assertLazyFields(issues.get(0));
+		assertThat(issues.get(1).getFields().getWatches().getWatchCount()).isEqualTo(5);
+		assertThat(issues.get(1).getFields().getAttachment()).extracting(JiraAttachment::getFilename).containsExactly("a.png");
+		assertThat(issues.get(1).getFields().getIssuelinks()).isNull();
+	}
+
+	@Test
+	public void appendedIssuesReplaceEarlierOnes(@TempDir Path dir) throws IOException {
+		JiraIssueArchive archive = new JiraIssueArchive(dir.resolve("issues.ndjson.gz").toFile(), objectMapper);
+		archive.append(List.of(issue("SPR-1", "First"), issue("SPR-2", "Second")));
+		archive.append(List.of(issue("SPR-1", "Updated"), issue("SPR-3", "Third")));
+
+		assertThat(archive.readAll()).extracting(i -> i.getKey() + " " + i.getFields().getSummary())
+				.containsExactly("SPR-1 Updated", "SPR-2 Second", "SPR-3 Third");
+		assertThat(archive.read("SPR-1").getFields().getSummary()).isEqualTo("Updated");
+		assertThat(archive.read("SPR-2").getFields().getSummary()).isEqualTo("Second");
+		assertThat(archive.read("SPR-3").getFields().getSummary()).isEqualTo("Third");
+		assertThat(archive.read("SPR-4")).isNull();
+	}
+
+	@Test
+	public void metadata(@TempDir Path dir) throws IOException {
+		File file = dir.resolve("issues.ndjson.gz").toFile();
+		JiraIssueArchive archive = new JiraIssueArchive(file, objectMapper);
+		JiraVersion version = new JiraVersion();
+		version.setName("5.3.1");
+		JiraProject project = new JiraProject();
+		project.setVersions(List.of(version));
+		JiraIssueArchive.Metadata metadata = new JiraIssueArchive.Metadata();
+		metadata.setJql("project = SPR");
+		metadata.setCreatedAt(DateTime.now());
+		metadata.setProject(project);
+
+		archive.writeMetadata(metadata);
+		archive.append(List.of(issue("SPR-1", "First")));
+
+		JiraIssueArchive.Metadata read = new JiraIssueArchive(file, objectMapper).readMetadata();
+		assertThat(read.getJql()).isEqualTo("project = SPR");
+		assertThat(read.getCreatedAt().getMillis()).isEqualTo(metadata.getCreatedAt().getMillis());
+		assertThat(read.getProject().getVersions()).extracting(JiraVersion::getName).containsExactly("5.3.1");
+
+		archive.delete();
+		assertThat(archive.exists()).isFalse();
+		assertThat(dir.toFile().list()).isEmpty();
+	}
+
+	private static void assertLazyFields(JiraIssue issue) {
+		JiraIssue.Fields fields = issue.getFields();
+		assertThat(fields.getSummary()).isEqualTo("From search");
+		assertThat(fields.getIssuelinks()).hasSize(1);
+		assertThat(fields.getIssuelinks().get(0).getOutwardIssue().getKey()).isEqualTo("SPR-2");
+		assertThat(fields.getIssuelinks().get(0).getType().getOutward()).isEqualTo("relates to");
+		assertThat(fields.getAttachment()).extracting(JiraAttachment::getSize).containsExactly(2048);
+		assertThat(fields.getWatches().getWatchCount()).isEqualTo(3);
+		assertThat(fields.getComment().getComments().get(0).getVisibility().getValue()).isEqualTo("Developers");
+	}
+
+	private static JiraIssue issue(String key, String summary) {
+		JiraIssue issue = new JiraIssue();
+		issue.setKey(key);
+		issue.setFields(new JiraIssue.Fields());
+		issue.getFields().setSummary(summary);
+		return issue;
+	}
+
+}
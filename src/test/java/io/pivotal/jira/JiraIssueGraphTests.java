@@ -0,0 +1,69 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class JiraIssueGraphTests {
+
+	@Test
+	public void restrictedSubtasksAndLinksLeftOut() {
+		JiraIssue parent = issue("MNG-1", null);
+		JiraIssue publicSubtask = issue("MNG-2", null);
+		JiraIssue restrictedSubtask = issue("MNG-3", "Restricted");
+		parent.getFields().getSubtasks().addAll(List.of(publicSubtask, restrictedSubtask));
+		parent.getFields().getIssuelinks().add(outwardLink(issue("MNG-4", null)));
+		parent.getFields().getIssuelinks().add(outwardLink(issue("MNG-5", null)));
+
+		JiraIssueGraph graph = new JiraIssueGraph(List.of(parent, publicSubtask, restrictedSubtask), List.of("MNG-5"));
+
+		assertThat(graph.getRestrictedCount()).isEqualTo(2);
+		assertThat(graph.isRestricted("MNG-3")).isTrue();
+		assertThat(graph.isRestricted("MNG-4")).isFalse();
+		assertThat(graph.getSubtaskKeys("MNG-1")).containsExactly("MNG-2", "MNG-3");
+		assertThat(graph.getParentKey("MNG-3")).isEqualTo("MNG-1");
+		assertThat(graph.getSubtasks(parent)).extracting(JiraIssue::getKey).containsExactly("MNG-2");
+		assertThat(graph.getIssueLinks(parent)).extracting(link -> link.getOutwardIssue().getKey()).containsExactly("MNG-4");
+		assertThat(graph.getOutwardLinks("MNG-1")).hasSize(2);
+	}
+
+	private static JiraIssue issue(String key, String securityLevel) {
+		JiraIssue.Fields fields = new JiraIssue.Fields();
+		fields.setSubtasks(new ArrayList<>());
+		fields.setIssuelinks(new ArrayList<>());
+		if (securityLevel != null) {
+			JiraSecurity security = new JiraSecurity();
+			security.setName(securityLevel);
+			fields.setSecurity(security);
+		}
+		JiraIssue issue = new JiraIssue();
+		issue.setKey(key);
+		issue.setFields(fields);
+		return issue;
+	}
+
+	private static IssueLink outwardLink(JiraIssue issue) {
+		IssueLink link = new IssueLink();
+		link.setOutwardIssue(issue);
+		return link;
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.Test;
+
+public class JiraIssueStoreTests {
+
+	private final JiraIssueStore store = new JiraIssueStore("MNG", List.of(
+			issue("MNG-1", "2005-01-01T10:00", "Bug", "core"),
+			issue("MNG-2", "2007-06-01T10:00", "Task", null),
+			issue("MNG-10", "2010-01-01T00:00", "Bug", "core"),
+			issue("MNG-3", "2021-01-01T10:00", "Backport", "site")));
+
+
+	@Test
+	public void createdRanges() {
+		assertThat(keys("project = MNG AND created < 2007-01-01")).containsExactly("MNG-1");
+		assertThat(keys("project=MNG AND created >=2007-01-01 AND created < 2010-01-01")).containsExactly("MNG-2");
+		assertThat(keys("project = MNG AND created <= 2010-01-01 ORDER BY created DESC"))
+				.containsExactly("MNG-10", "MNG-2", "MNG-1");
+	}
+
+	@Test
+	public void fieldsAndKeys() {
+		assertThat(keys("project = MNG AND component = 'core'")).containsExactly("MNG-1", "MNG-10");
+		assertThat(keys("project = MNG AND component != core")).containsExactly("MNG-3");
+		assertThat(keys("project = MNG AND NOT (type = Bug OR component is empty)")).containsExactly("MNG-3");
+		assertThat(keys("id=MNG-10")).containsExactly("MNG-10");
+		assertThat(keys("(project = MNG) AND key >= MNG-3 AND key <= MNG-10 ORDER BY key ASC"))
+				.containsExactly("MNG-3", "MNG-10");
+	}
+
+	@Test
+	public void covers() {
+		assertThat(store.covers("project = MNG AND type in (Bug, Task) ORDER BY key ASC")).isTrue();
+		assertThat(store.covers("key in (MNG-1, MNG-3)")).isTrue();
+		assertThat(store.covers("project = SUREFIRE")).isFalse();
+		assertThat(store.covers("type = Bug")).isFalse();
+		assertThat(store.covers("project = MNG AND created > -1d")).isFalse();
+		assertThat(store.covers("project = MNG AND fixVersion in unreleasedVersions()")).isFalse();
+		assertThat(store.covers("project = MNG AND created < 2007-01-01")).isFalse();
+		assertThat(store.covers("project = MNG AND NOT updated >= '2007/01/01 10:00'")).isFalse();
+		assertThat(JiraIssueStore.getProjectKey("project = MNG ORDER BY key ASC")).isEqualTo("MNG");
+		assertThat(JiraIssueStore.getProjectKey("project = MNG AND component = 'core'")).isNull();
+	}
+
+	@Test
+	public void dateClausesInTimeZone() {
+		List<JiraIssue> issues = List.of(issue("MNG-1", "2009-12-31T23:30Z", "Bug", null));
+		JiraIssueStore berlin = new JiraIssueStore("MNG", issues, DateTimeZone.forID("Europe/Berlin"));
+		JiraIssueStore utc = new JiraIssueStore("MNG", issues, DateTimeZone.UTC);
+
+		String jql = "project = MNG AND created >= 2010-01-01";
+		assertThat(berlin.covers(jql)).isTrue();
+		assertThat(berlin.find(jql)).extracting(JiraIssue::getKey).containsExactly("MNG-1");
+		assertThat(utc.find(jql)).isEmpty();
+		assertThat(utc.find("project = MNG AND created = '2009-12-31 23:30'")).hasSize(1);
+	}
+
+	private List<String> keys(String jql) {
+		return store.find(jql).stream().map(JiraIssue::getKey).toList();
+	}
+
+	private static JiraIssue issue(String key, String created, String type, String component) {
+		JiraIssueType issueType = new JiraIssueType();
+		issueType.setName(type);
+		JiraIssue.Fields fields = new JiraIssue.Fields();
+		fields.setCreated(DateTime.parse(created));
+		fields.setUpdated(DateTime.parse(created));
+		fields.setIssuetype(issueType);
+		fields.setComponents(new ArrayList<>());
+		if (component != null) {
+			JiraComponent jiraComponent = new JiraComponent();
+			jiraComponent.setName(component);
+			fields.getComponents().add(jiraComponent);
+		}
+		JiraIssue issue = new JiraIssue();
+		issue.setKey(key);
+		issue.setFields(fields);
+		return issue;
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+public class JiraRetryTests {
+
+	@Test
+	public void transientFailures() {
+		assertThat(JiraRetry.isTransient(responseException(429, null))).isTrue();
+		assertThat(JiraRetry.isTransient(responseException(503, null))).isTrue();
+		assertThat(JiraRetry.isTransient(new TimeoutException())).isTrue();
+		assertThat(JiraRetry.isTransient(responseException(400, null))).isFalse();
+		assertThat(JiraRetry.isTransient(responseException(404, null))).isFalse();
+	}
+
+	@Test
+	public void retryAfterSeconds() {
+		assertThat(JiraRetry.retryAfter(responseException(429, "30"))).isEqualTo(Duration.ofSeconds(30));
+		assertThat(JiraRetry.retryAfter(responseException(503, "86400"))).isEqualTo(Duration.ofMinutes(10));
+		assertThat(JiraRetry.retryAfter(responseException(429, null))).isNull();
+		assertThat(JiraRetry.retryAfter(responseException(429, "soon"))).isNull();
+	}
+
+	private static WebClientResponseException responseException(int status, String retryAfter) {
+		HttpHeaders headers = new HttpHeaders();
+		if (retryAfter != null) {
+			headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+		}
+		return WebClientResponseException.create(status, "", headers, new byte[0], null);
+	}
+
+}
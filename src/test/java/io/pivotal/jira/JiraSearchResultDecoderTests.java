@@ -0,0 +1,139 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+public class JiraSearchResultDecoderTests {
+
+	private static final String ISSUE = "{\"key\":\"SPR-1\",\"fields\":{\"summary\":\"Lazy fields\"," +
+			"\"issuelinks\":[{\"type\":{\"name\":\"Relate\",\"outward\":\"relates to\"},\"outwardIssue\":{\"key\":\"SPR-2\"}}]," +
+			"\"attachment\":[{\"filename\":\"trace.txt\",\"content\":\"https://jira/trace.txt\",\"size\":2048}]," +
+			"\"watches\":{\"watchCount\":3}," +
+			"\"comment\":{\"startAt\":0,\"maxResults\":2,\"total\":2,\"comments\":[" +
+			"{\"body\":\"Public\"},{\"body\":\"Restricted\",\"visibility\":{\"type\":\"role\",\"value\":\"Developers\"}}]}}}";
+
+	private static final String SUMMARY = "Gr\u00fc\u00dfe \u2013 caf\u00e9 \ud83d\ude80";
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+
+	@Test
+	public void issuesAfterPagingFields() {
+		String json = "{\"expand\":\"names\",\"startAt\":50,\"maxResults\":50,\"total\":123," +
+				"\"issues\":[" + issue(1) + "," + issue(2) + "," + issue(3) + "]}";
+
+		assertDecodedAtAllBoundaries(json);
+	}
+
+	@Test
+	public void issuesBeforePagingFields() {
+		String json = "{\"issues\":[" + issue(1) + "," + issue(2) + "," + issue(3) + "]," +
+				"\"startAt\":50,\"maxResults\":50,\"total\":123,\"names\":{\"total\":\"Total\"}}";
+
+		assertDecodedAtAllBoundaries(json);
+	}
+
+	@Test
+	public void emptyPage() {
+		String json = "{\"startAt\":0,\"maxResults\":50,\"total\":0,\"issues\":[]}";
+		JiraSearchResultDecoder decoder = new JiraSearchResultDecoder(objectMapper);
+
+		assertThat(decode(decoder, json, 3)).isEmpty();
+		assertThat(decoder.getSearchResult().getTotal()).isZero();
+		assertThat(decoder.getIssueCount()).isZero();
+	}
+
+
+	@Test
+	public void lazyFieldsOfDecodedIssues() {
+		String json = "{\"startAt\":0,\"maxResults\":50,\"total\":1,\"issues\":[" + ISSUE + "]}";
+
+		List<JiraIssue> issues = decode(new JiraSearchResultDecoder(objectMapper), json, json.length());
+
+		assertThat(issues).hasSize(1);
+		JiraIssue.Fields fields = issues.get(0).getFields();
+		assertThat(fields.getIssuelinks()).hasSize(1);
+		assertThat(fields.getIssuelinks().get(0).getOutwardIssue().getKey()).isEqualTo("SPR-2");
+		assertThat(fields.getIssuelinks().get(0).getType().getOutward()).isEqualTo("relates to");
+		assertThat(fields.getAttachment()).extracting(JiraAttachment::getFilename).containsExactly("trace.txt");
+		assertThat(fields.getWatches().getWatchCount()).isEqualTo(3);
+		List<JiraComment> comments = fields.getComment().getComments();
+		assertThat(comments.get(0).getVisibility()).isNull();
+		assertThat(comments.get(1).getVisibility().getValue()).isEqualTo("Developers");
+		assertThat(fields.getComment().hasRestrictedComments()).isTrue();
+	}
+
+	/**
+	 * Decode the JSON split into two chunks at every byte offset, which includes
+	 * offsets inside an issue and inside the multi-byte characters of its summary,
+	 * and also in chunks of a few bytes.
+	 */
+	private void assertDecodedAtAllBoundaries(String json) {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		for (int offset = 1; offset < bytes.length; offset++) {
+			JiraSearchResultDecoder decoder = new JiraSearchResultDecoder(objectMapper);
+			List<JiraIssue> issues = new ArrayList<>();
+			issues.addAll(decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, 0, offset))));
+			issues.addAll(decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, offset, bytes.length))));
+			issues.addAll(decoder.complete());
+			assertDecoded(decoder, issues);
+		}
+		for (int chunkSize = 1; chunkSize <= 5; chunkSize++) {
+			JiraSearchResultDecoder decoder = new JiraSearchResultDecoder(objectMapper);
+			assertDecoded(decoder, decode(decoder, json, chunkSize));
+		}
+	}
+
+	private void assertDecoded(JiraSearchResultDecoder decoder, List<JiraIssue> issues) {
+		assertThat(issues).extracting(JiraIssue::getKey).containsExactly("SPR-1", "SPR-2", "SPR-3");
+		assertThat(issues).allSatisfy(issue -> assertThat(issue.getFields().getSummary()).isEqualTo(SUMMARY));
+		assertThat(decoder.getIssueCount()).isEqualTo(3);
+		assertThat(decoder.getSearchResult().getStartAt()).isEqualTo(50);
+		assertThat(decoder.getSearchResult().getMaxResults()).isEqualTo(50);
+		assertThat(decoder.getSearchResult().getTotal()).isEqualTo(123);
+		assertThat(decoder.getSearchResult().getIssues()).isNull();
+	}
+
+	private static String issue(int number) {
+		return "{\"id\":\"" + number + "\",\"key\":\"SPR-" + number + "\",\"fields\":{\"summary\":\"" + SUMMARY + "\"," +
+				"\"labels\":[\"a\",\"b\"],\"total\":7,\"comment\":{\"startAt\":0,\"total\":0,\"comments\":[]}}}";
+	}
+
+	private List<JiraIssue> decode(JiraSearchResultDecoder decoder, String json, int chunkSize) {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		List<JiraIssue> issues = new ArrayList<>();
+		for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+			byte[] chunk = new byte[Math.min(chunkSize, bytes.length - offset)];
+			System.arraycopy(bytes, offset, chunk, 0, chunk.length);
+			issues.addAll(decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(chunk)));
+		}
+		issues.addAll(decoder.complete());
+		return issues;
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class JiraShardPlannerTests {
+
+	private static final List<String> KEYS = IntStream.rangeClosed(1, 10).mapToObj(i -> "MNG-" + i).toList();
+
+
+	@Test
+	public void balancedByIssueCount() {
+		List<JiraShardPlanner.Shard> shards = JiraShardPlanner.plan("project = MNG ORDER BY key ASC", KEYS, new int[10], 4, 100);
+		assertThat(shards).extracting(JiraShardPlanner.Shard::getIssueCount).containsExactly(3, 4, 3);
+		assertThat(shards).extracting(JiraShardPlanner.Shard::getJql).containsExactly(
+				"(project = MNG) AND key <= MNG-3 ORDER BY key ASC",
+				"(project = MNG) AND key >= MNG-4 AND key <= MNG-7 ORDER BY key ASC",
+				"(project = MNG) AND key >= MNG-8 ORDER BY key ASC");
+	}
+
+	@Test
+	public void commentHeavyIssueInOwnShard() {
+		int[] comments = {1, 1, 1, 1, 1, 1, 1, 1, 50, 1};
+		List<JiraShardPlanner.Shard> shards = JiraShardPlanner.plan("project = MNG", KEYS, comments, 100, 30);
+		assertThat(shards).extracting(JiraShardPlanner.Shard::getFirstKey).containsExactly("MNG-1", "MNG-9", "MNG-10");
+		assertThat(shards).extracting(JiraShardPlanner.Shard::getEstimatedCommentCount).containsExactly(8L, 50L, 1L);
+	}
+
+	@Test
+	public void singleShard() {
+		List<JiraShardPlanner.Shard> shards = JiraShardPlanner.plan("project = MNG", KEYS, new int[10], 100, 30);
+		assertThat(shards).extracting(JiraShardPlanner.Shard::getJql).containsExactly("project = MNG");
+	}
+
+	@Test
+	public void estimateCommentsFromSample() {
+		List<String> sample = JiraShardPlanner.sample(KEYS, 3);
+		assertThat(sample).containsExactly("MNG-1", "MNG-5", "MNG-9");
+		assertThat(JiraShardPlanner.estimateComments(KEYS, Map.of("MNG-1", 2, "MNG-5", 7, "MNG-9", 0)))
+				.containsExactly(2, 2, 2, 2, 7, 7, 7, 7, 0, 0);
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JiraUserDirectoryTests {
+
+	@Test
+	public void collectMentionedUsers() {
+		JiraComment comment = new JiraComment();
+		comment.setBody("Thanks [~jdoe], see also [~asmith]");
+		JiraCommentPage page = new JiraCommentPage();
+		page.setComments(new ArrayList<>(List.of(comment)));
+		JiraIssue.Fields fields = new JiraIssue.Fields();
+		fields.setDescription("Reported by [~asmith]");
+		fields.setComment(page);
+		JiraIssue issue = new JiraIssue();
+		issue.setFields(fields);
+
+		assertThat(JiraUserDirectory.collectMentionedUsers(List.of(issue))).containsExactly("asmith", "jdoe");
+	}
+
+	@Test
+	public void resolveKnownUsersFromFile(@TempDir Path dir) throws IOException {
+		File file = dir.resolve("users.json").toFile();
+		Files.writeString(file.toPath(), "{\"jdoe\":{\"key\":\"jdoe\",\"displayName\":\"John Doe\"}," +
+				"\"gone\":{\"key\":\"gone\"}}");
+
+		// Known users, including ones that don't exist, are not looked up
+		JiraUserDirectory directory = new JiraUserDirectory(null, file);
+
+		assertThat(directory.resolve(Set.of("jdoe", "gone"))).containsOnlyKeys("jdoe");
+		assertThat(directory.resolve(Set.of("jdoe")).get("jdoe").getDisplayName()).isEqualTo("John Doe");
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.jupiter.api.Test;
+
+public class JqlTests {
+
+	@Test
+	public void andKeepsOrderByAtTheEnd() {
+		assertThat(Jql.and("project = MNG ORDER BY key ASC", "updated >= \"2023/01/02 03:04\""))
+				.isEqualTo("(project = MNG) AND updated >= \"2023/01/02 03:04\" ORDER BY key ASC");
+	}
+
+	@Test
+	public void andWithoutOrderBy() {
+		assertThat(Jql.and("project = MNG OR project = SUREFIRE", "key = MNG-1"))
+				.isEqualTo("(project = MNG OR project = SUREFIRE) AND key = MNG-1");
+	}
+
+	@Test
+	public void updatedSince() {
+		DateTime dateTime = new DateTime(2023, 1, 2, 3, 4, 5, DateTimeZone.getDefault());
+		assertThat(Jql.updatedSince(dateTime)).isEqualTo("updated >= \"2023/01/02 03:04\"");
+	}
+
+	@Test
+	public void keyIn() {
+		assertThat(Jql.keyIn(List.of("MNG-1", "MNG-22"))).isEqualTo("key in (MNG-1,MNG-22)");
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.jira;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class LocalCommitIndexTests {
+
+	private static final String PREFIX = "https://github.com/apache/maven/commit/";
+
+	@Test
+	public void commitsByIssueKey() {
+		String log = "aaa111\n[MNG-1] First change\n\nSee also MNG-2, MNG-1\n\u0000\n" +
+				"bbb222\nUnrelated change for MNGSITE-3 and XMNG-4\n\u0000\n" +
+				"ccc333\n[MNG-2] Follow-up\n\u0000\n";
+		LocalCommitIndex index = LocalCommitIndex.parse(log, "MNG", PREFIX);
+
+		assertThat(index.size()).isEqualTo(2);
+		assertThat(index.getCommitUrls("MNG-1")).containsExactly(PREFIX + "aaa111");
+		assertThat(index.getCommitUrls("MNG-2")).containsExactly(PREFIX + "aaa111", PREFIX + "ccc333");
+		assertThat(index.getCommitUrls("MNG-3")).isEmpty();
+	}
+
+}
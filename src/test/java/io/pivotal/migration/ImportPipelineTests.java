@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class ImportPipelineTests {
+
+	@Test
+	public void resultsCheckedInOrderWithinWindow() {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		List<Object> checked = new CopyOnWriteArrayList<>();
+
+		ImportPipeline pipeline = new ImportPipeline(2, issue -> {
+			checked.add(issue.getMilestone().get("title"));
+			inFlight.decrementAndGet();
+			return true;
+		});
+		for (int i = 0; i < 10; i++) {
+			String title = "M" + i;
+			pipeline.submit(() -> {
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				return new MigrationClient.ImportedIssue(null, Map.of("title", title), null);
+			});
+		}
+		pipeline.awaitCompletion();
+
+		assertThat(checked).containsExactly("M0", "M1", "M2", "M3", "M4", "M5", "M6", "M7", "M8", "M9");
+		assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+	}
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.migration;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.pivotal.github.GithubComment;
+import io.pivotal.github.GithubIssue;
+import io.pivotal.jira.JiraIssue;
+import io.pivotal.jira.JiraResolution;
+import io.pivotal.post.JiraLinkConverter;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IssueSyncTests {
+
+	private static final String BODY = "See [SPR-2](https://jira.example.org/browse/SPR-2) for details.";
+
+	private static final DateTime SINCE = new DateTime(2023, 5, 1, 0, 0);
+
+
+	private final JiraLinkConverter converter =
+			new JiraLinkConverter("https://jira.example.org", "SPR", Map.of("SPR-2", 2), Writer.nullWriter());
+
+	private final IssueSync issueSync = new IssueSync(converter);
+
+
+	@Test
+	public void unchangedIssue() {
+		GithubIssue rendered = renderedIssue(BODY);
+		assertThat(issueSync.findIssueChanges(jiraIssue(null), rendered, existingIssue(BODY))).isEmpty();
+	}
+
+	@Test
+	public void unchangedIssueWithConvertedLinks() {
+		GithubIssue rendered = renderedIssue(BODY);
+		Map<String, Object> existing = existingIssue("See #2   for details.\r\n");
+		assertThat(issueSync.findIssueChanges(jiraIssue(null), rendered, existing)).isEmpty();
+	}
+
+	@Test
+	public void changedBodyIsConverted() {
+		GithubIssue rendered = renderedIssue(BODY + " Also fails on Windows.");
+		Map<String, Object> changes = issueSync.findIssueChanges(jiraIssue(null), rendered, existingIssue(BODY));
+		assertThat(changes).containsOnlyKeys("body");
+		assertThat((String) changes.get("body"))
+				.isEqualTo(converter.convert(rendered.getBody()))
+				.contains("#2")
+				.doesNotContain("/browse/");
+	}
+
+	@Test
+	public void changedTitleMilestoneAndAssignee() {
+		GithubIssue rendered = renderedIssue(BODY);
+		rendered.setTitle("New title");
+		rendered.setMilestone(5);
+		rendered.setAssignee("jdoe");
+		Map<String, Object> existing = existingIssue(BODY);
+		existing.put("milestone", Map.of("number", 4));
+		existing.put("assignee", Map.of("login", "other"));
+
+		Map<String, Object> changes = issueSync.findIssueChanges(jiraIssue(null), rendered, existing);
+		assertThat(changes).containsOnlyKeys("title", "milestone", "assignee");
+		assertThat(changes.get("title")).isEqualTo("New title");
+		assertThat(changes.get("milestone")).isEqualTo(5);
+		assertThat(changes.get("assignee")).isEqualTo("jdoe");
+	}
+
+	@Test
+	public void closedAsNotPlanned() {
+		GithubIssue rendered = renderedIssue(BODY);
+		rendered.setClosed(true);
+		Map<String, Object> changes = issueSync.findIssueChanges(jiraIssue("Won't Fix"), rendered, existingIssue(BODY));
+		assertThat(changes).containsOnlyKeys("state", "state_reason");
+		assertThat(changes.get("state")).isEqualTo("closed");
+		assertThat(changes.get("state_reason")).isEqualTo("not_planned");
+	}
+
+	@Test
+	public void closedAsCompleted() {
+		GithubIssue rendered = renderedIssue(BODY);
+		rendered.setClosed(true);
+		Map<String, Object> changes = issueSync.findIssueChanges(jiraIssue("Fixed"), rendered, existingIssue(BODY));
+		assertThat(changes.get("state_reason")).isEqualTo("completed");
+	}
+
+	@Test
+	public void reopened() {
+		Map<String, Object> existing = existingIssue(BODY);
+		existing.put("state", "closed");
+		Map<String, Object> changes = issueSync.findIssueChanges(jiraIssue(null), renderedIssue(BODY), existing);
+		assertThat(changes).containsOnlyKeys("state");
+		assertThat(changes.get("state")).isEqualTo("open");
+	}
+
+	@Test
+	public void labelsOnlyAdded() {
+		GithubIssue rendered = renderedIssue(BODY);
+		rendered.setLabels(List.of("type: bug", "in: core"));
+		Map<String, Object> existing = existingIssue(BODY);
+		existing.put("labels", List.of(Map.of("name", "type: bug"), Map.of("name", "added on GitHub")));
+
+		Map<String, Object> changes = issueSync.findIssueChanges(jiraIssue(null), rendered, existing);
+		assertThat(changes).containsOnlyKeys("labels");
+		assertThat((Iterable<?>) changes.get("labels")).containsExactly("type: bug", "added on GitHub", "in: core");
+
+		existing.put("labels", List.of(Map.of("name", "in: core"), Map.of("name", "type: bug")));
+		assertThat(issueSync.findIssueChanges(jiraIssue(null), rendered, existing)).isEmpty();
+	}
+
+	@Test
+	public void newComments() {
+		List<GithubComment> comments = List.of(
+				comment("Before the sync", SINCE.minusMinutes(1)),
+				comment(BODY, SINCE),
+				comment("Added since", SINCE.plusHours(1)));
+
+		List<GithubComment> result = issueSync.findNewComments(comments, SINCE,
+				() -> List.of("Before the sync", "See #2 for details.\n"));
+
+		assertThat(result).singleElement().satisfies(comment -> {
+			assertThat(comment.getBody()).isEqualTo(converter.convert("Added since"));
+			assertThat(comment.getCreatedAt()).isNull();
+		});
+	}
+
+	@Test
+	public void newCommentsAreConverted() {
+		List<GithubComment> result = issueSync.findNewComments(List.of(comment(BODY, SINCE)), SINCE, List::of);
+		assertThat(result).singleElement().satisfies(comment -> assertThat(comment.getBody())
+				.isEqualTo(converter.convert(BODY))
+				.contains("#2")
+				.doesNotContain("/browse/"));
+	}
+
+	@Test
+	public void duplicateNewCommentsAddedOnce() {
+		List<GithubComment> comments = List.of(comment("+1", SINCE), comment("+1", SINCE.plusMinutes(1)));
+		assertThat(issueSync.findNewComments(comments, SINCE, List::of)).hasSize(1);
+	}
+
+	@Test
+	public void noNewCommentsWithoutLookup() {
+		AtomicInteger lookups = new AtomicInteger();
+		List<GithubComment> result = issueSync.findNewComments(
+				List.of(comment("Before the sync", SINCE.minusDays(1))), SINCE, () -> {
+					lookups.incrementAndGet();
+					return List.of();
+				});
+
+		assertThat(result).isEmpty();
+		assertThat(lookups.get()).isZero();
+	}
+
+
+	private static JiraIssue jiraIssue(String resolutionName) {
+		JiraIssue.Fields fields = new JiraIssue.Fields();
+		if (resolutionName != null) {
+			JiraResolution resolution = new JiraResolution();
+			resolution.setName(resolutionName);
+			fields.setResolution(resolution);
+		}
+		JiraIssue issue = new JiraIssue();
+		issue.setKey("SPR-1");
+		issue.setFields(fields);
+		return issue;
+	}
+
+	private static GithubIssue renderedIssue(String body) {
+		GithubIssue issue = new GithubIssue();
+		issue.setTitle("Title");
+		issue.setBody(body);
+		return issue;
+	}
+
+	private static Map<String, Object> existingIssue(String body) {
+		Map<String, Object> issue = new HashMap<>();
+		issue.put("title", "Title");
+		issue.put("body", body);
+		issue.put("state", "open");
+		issue.put("labels", new ArrayList<>());
+		return issue;
+	}
+
+	private static GithubComment comment(String body, DateTime createdAt) {
+		GithubComment comment = new GithubComment();
+		comment.setBody(body);
+		comment.setCreatedAt(createdAt);
+		return comment;
+	}
+
+}
@@ -26,6 +26,7 @@ import io.pivotal.jira.JiraIssue;
 import io.pivotal.jira.JiraIssueType;
 import io.pivotal.jira.JiraResolution;
 import io.pivotal.jira.JiraStatus;
+import io.pivotal.jira.JiraVotes;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -149,10 +150,10 @@ public class LabelHandlerTests {
 		jiraIssue.setFields(fields);
 		jiraIssue.initFixAndBackportVersions();
 
-		jiraIssue.setVotes(9);
+		fields.setVotes(new JiraVotes(9));
 		assertThat(labelHandler.getLabelsFor(jiraIssue)).isEmpty();
 
-		jiraIssue.setVotes(10);
+		fields.setVotes(new JiraVotes(10));
 		assertThat(labelHandler.getLabelsFor(jiraIssue)).containsExactly("has: votes-jira");
 	}
 
@@ -20,6 +20,7 @@ import java.io.Writer;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import io.pivotal.jira.CompactJiraIssue;
 import io.pivotal.jira.JiraIssue;
 import org.junit.jupiter.api.Test;
 
@@ -77,7 +78,7 @@ public class MigrationContextTests {
 	private static MigrationClient.ImportedIssue jiraIssueImport(String jiraKey, Integer ghIssueId, String failure) {
 		JiraIssue jiraIssue = new JiraIssue();
 		jiraIssue.setKey(jiraKey);
-		MigrationClient.ImportedIssue imported = new MigrationClient.ImportedIssue(jiraIssue, null, null);
+		MigrationClient.ImportedIssue imported = new MigrationClient.ImportedIssue(CompactJiraIssue.from(jiraIssue), null, null);
 		imported.setIssueNumber(ghIssueId);
 		imported.setFailure(failure);
 		return imported;
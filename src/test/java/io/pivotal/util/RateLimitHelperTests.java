@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pivotal.util;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitHelperTests {
+
+	@Test
+	public void burstThenSustainedRate() {
+		RateLimitHelper helper = new RateLimitHelper(2.0, 3, 0, 0);
+		long now = 1_000_000;
+
+		assertThat(helper.reservePermit(now)).isZero();
+		assertThat(helper.reservePermit(now)).isZero();
+		assertThat(helper.reservePermit(now)).isZero();
+		assertThat(helper.reservePermit(now)).isEqualTo(500);
+		assertThat(helper.reservePermit(now)).isEqualTo(1000);
+
+		// Idle long enough to refill the burst, but no more
+		now += 10_000;
+		for (int i = 0; i < 3; i++) {
+			assertThat(helper.reservePermit(now)).isZero();
+		}
+		assertThat(helper.reservePermit(now)).isEqualTo(500);
+	}
+
+	@Test
+	public void perMinuteLimit() {
+		RateLimitHelper helper = new RateLimitHelper(1000.0, 1000, 5, 0);
+		long now = 1_000_000;
+		for (int i = 0; i < 5; i++) {
+			assertThat(helper.reservePermit(now + i)).isLessThan(1000);
+		}
+		assertThat(helper.reservePermit(now + 10)).isEqualTo(60_000 - 10);
+		assertThat(helper.reservePermit(now + 10)).isEqualTo(60_000 - 10 + 1);
+	}
+
+	@Test
+	public void perHourLimit() {
+		RateLimitHelper helper = new RateLimitHelper(1000.0, 1000, 0, 2);
+		long now = 1_000_000;
+		assertThat(helper.reservePermit(now)).isZero();
+		assertThat(helper.reservePermit(now)).isZero();
+		assertThat(helper.reservePermit(now)).isEqualTo(3_600_000);
+	}
+
+	@Test
+	public void primaryLimitFromHeaders() {
+		RateLimitHelper helper = new RateLimitHelper();
+		long now = System.currentTimeMillis();
+		long reset = now / 1000 + 60;
+
+		helper.updateFromHeaders(headers(2, reset));
+		assertThat(helper.getPrimaryLimitWait(now)).isZero();
+		assertThat(helper.getPrimaryLimitWait(now)).isZero();
+		assertThat(helper.getPrimaryLimitWait(now)).isEqualTo(reset * 1000 - now);
+
+		helper.updateFromHeaders(headers(5000, reset + 3600));
+		assertThat(helper.getPrimaryLimitWait(now)).isZero();
+	}
+
+	@Test
+	public void primaryLimitWithoutHeaders() {
+		RateLimitHelper helper = new RateLimitHelper();
+		helper.updateFromHeaders(new HttpHeaders());
+		assertThat(helper.getPrimaryLimitWait(System.currentTimeMillis())).isZero();
+	}
+
+	private static HttpHeaders headers(int remaining, long reset) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+		headers.set("X-RateLimit-Reset", String.valueOf(reset));
+		return headers;
+	}
+
+}